@@ -0,0 +1,113 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntBinaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rmq.domain.Aggregate;
+import rmq.domain.FlatStaticRMQ;
+import rmq.domain.RangeAggregate;
+
+/**
+ * Query time of the generic range aggregate structures against the minimum
+ * specific sparse table.
+ * <p>
+ * Before measuring, the setup queries structures for every operator, so the
+ * shared call sites have seen all of them like in an application that uses
+ * several operators at once.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregateBenchmark {
+    static final int QUERIES = 1024;
+
+    /**
+     * Operators to measure. CUSTOM_MIN is the minimum as an unrecognized
+     * operator, called through the IntBinaryOperator.
+     */
+    public enum Op {
+        MIN(Aggregate.MIN),
+        CUSTOM_MIN(Aggregate.of((IntBinaryOperator)(a, b) -> a > b ? b : a,
+                Integer.MAX_VALUE, true)),
+        MAX(Aggregate.MAX),
+        GCD(Aggregate.GCD),
+        SUM(Aggregate.SUM);
+
+        final Aggregate agg;
+
+        Op(Aggregate agg) {
+            this.agg = agg;
+        }
+    }
+
+    @Param
+    public Op op;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private FlatStaticRMQ flat;
+    private RangeAggregate structure;
+    private final int[] lefts = new int[QUERIES];
+    private final int[] rights = new int[QUERIES];
+
+    /**
+     * Build the structures and generate the queries.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        Distribution.UNIFORM.generate(rand, size, lefts, rights);
+        for (Op other : Op.values()) {
+            RangeAggregate warm = other.agg.build(arr);
+            for (int i = 0; i < QUERIES; i++) {
+                warm.query(lefts[i], rights[i]);
+            }
+        }
+        flat = new FlatStaticRMQ(arr);
+        structure = op.agg.build(arr);
+    }
+
+    /**
+     * Run the query batch on the structure for the operator.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void aggregate(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(structure.query(lefts[i], rights[i]));
+        }
+    }
+
+    /**
+     * Run the query batch on FlatStaticRMQ for comparison.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void flatStatic(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(flat.query(lefts[i], rights[i]));
+        }
+    }
+}
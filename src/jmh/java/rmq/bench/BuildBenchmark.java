@@ -0,0 +1,55 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rmq.domain.RMQ;
+
+/**
+ * Preprocessing time of the RMQ structures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildBenchmark {
+    @Param
+    public Engine engine;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] arr;
+
+    /**
+     * Generate the input array.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+    }
+
+    /**
+     * Build the structure. Returned so that JMH consumes it.
+     */
+    @Benchmark
+    public RMQ build() {
+        return engine.build(arr);
+    }
+}
@@ -0,0 +1,46 @@
+package rmq.bench;
+
+import java.util.Random;
+
+/**
+ * Query length distributions used when generating benchmark queries.
+ */
+public enum Distribution {
+    /** Left limit uniform, right limit uniform in [l, size). Same as Tester. */
+    UNIFORM,
+    /** Ranges of at most 16 elements. */
+    SHORT,
+    /** Ranges covering at least half of the array. */
+    LONG;
+
+    /**
+     * Fill lefts and rights with valid queries over an array of the given size.
+     *
+     * @param rand Source of randomness.
+     * @param size Size of the queried array.
+     * @param lefts Left limits to fill.
+     * @param rights Right limits to fill.
+     */
+    public void generate(Random rand, int size, int[] lefts, int[] rights) {
+        for (int i = 0; i < lefts.length; i++) {
+            int l;
+            int r;
+            switch (this) {
+                case SHORT:
+                    l = rand.nextInt(size);
+                    r = Math.min(size - 1, l + rand.nextInt(16));
+                    break;
+                case LONG:
+                    l = rand.nextInt(size - size / 2);
+                    r = l + size / 2 + rand.nextInt(size - size / 2 - l);
+                    break;
+                default:
+                    l = rand.nextInt(size);
+                    r = l + rand.nextInt(size - l);
+                    break;
+            }
+            lefts[i] = l;
+            rights[i] = r;
+        }
+    }
+}
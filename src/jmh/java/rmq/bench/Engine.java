@@ -0,0 +1,50 @@
+package rmq.bench;
+
+import java.util.function.Function;
+import rmq.domain.AppendableRMQ;
+import rmq.domain.BlockScanRMQ;
+import rmq.domain.ConcurrentDynamicRMQ;
+import rmq.domain.DynamicRMQ;
+import rmq.domain.FlatStaticRMQ;
+import rmq.domain.LazyDynamicRMQ;
+import rmq.domain.LinearRMQ;
+import rmq.domain.OffHeapDynamicRMQ;
+import rmq.domain.RMQ;
+import rmq.domain.StaticRMQ;
+import rmq.domain.WideDynamicRMQ;
+
+/**
+ * The RMQ implementations covered by the benchmarks.
+ * <p>
+ * Benchmarks take the engine as a {@code @Param} so adding a new
+ * implementation here is enough to get it measured everywhere.
+ * </p>
+ */
+public enum Engine {
+    STATIC(StaticRMQ::new),
+    FLAT_STATIC(FlatStaticRMQ::new),
+    LINEAR(LinearRMQ::new),
+    BLOCK_SCAN(BlockScanRMQ::new),
+    DYNAMIC(DynamicRMQ::new),
+    WIDE_DYNAMIC(WideDynamicRMQ::new),
+    CONCURRENT_DYNAMIC(ConcurrentDynamicRMQ::new),
+    LAZY_DYNAMIC(LazyDynamicRMQ::new),
+    APPENDABLE(AppendableRMQ::new),
+    OFF_HEAP_DYNAMIC(OffHeapDynamicRMQ::new);
+
+    private final Function<int[], RMQ> factory;
+
+    Engine(Function<int[], RMQ> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Build the structure for the given array.
+     *
+     * @param arr The input array.
+     * @return A new RMQ structure over arr.
+     */
+    public RMQ build(int[] arr) {
+        return factory.apply(arr);
+    }
+}
@@ -0,0 +1,82 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rmq.domain.RMQ;
+import rmq.domain.RMQMetrics;
+
+/**
+ * Overhead of instrumenting a structure with {@link RMQMetrics}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    static final int QUERIES = 1024;
+
+    /**
+     * Without metrics, with disabled metrics and with enabled metrics.
+     */
+    public enum Metrics {
+        NONE,
+        DISABLED,
+        ENABLED
+    }
+
+    @Param({"FLAT_STATIC", "DYNAMIC"})
+    public Engine engine;
+
+    @Param
+    public Metrics metrics;
+
+    @Param({"1000000"})
+    public int size;
+
+    private RMQ rmq;
+    private final int[] lefts = new int[QUERIES];
+    private final int[] rights = new int[QUERIES];
+
+    /**
+     * Build the structure and generate the queries.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        rmq = engine.build(arr);
+        if (metrics != Metrics.NONE) {
+            rmq = new RMQMetrics("bench", metrics == Metrics.ENABLED).instrument(rmq);
+        }
+        Distribution.UNIFORM.generate(rand, size, lefts, rights);
+    }
+
+    /**
+     * Run the query batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void query(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(rmq.query(lefts[i], rights[i]));
+        }
+    }
+}
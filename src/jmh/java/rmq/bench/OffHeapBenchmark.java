@@ -0,0 +1,100 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rmq.domain.DynamicRMQ;
+import rmq.domain.OffHeapDynamicRMQ;
+
+/**
+ * Heap and off heap segment trees compared on large arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+public class OffHeapBenchmark {
+    static final int OPERATIONS = 1024;
+
+    @Param({"10000000", "100000000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean offHeap;
+
+    private DynamicRMQ heapRmq;
+    private OffHeapDynamicRMQ offHeapRmq;
+    private final int[] lefts = new int[OPERATIONS];
+    private final int[] rights = new int[OPERATIONS];
+    private final int[] values = new int[OPERATIONS];
+
+    /**
+     * Build the structure and generate the operations.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        if (offHeap) {
+            offHeapRmq = new OffHeapDynamicRMQ(arr);
+        } else {
+            heapRmq = new DynamicRMQ(arr);
+        }
+        Distribution.UNIFORM.generate(rand, size, lefts, rights);
+        for (int i = 0; i < OPERATIONS; i++) {
+            values[i] = rand.nextInt();
+        }
+    }
+
+    /**
+     * Run the query batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void query(Blackhole bh) {
+        if (offHeap) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                bh.consume(offHeapRmq.query(lefts[i], rights[i]));
+            }
+        } else {
+            for (int i = 0; i < OPERATIONS; i++) {
+                bh.consume(heapRmq.query(lefts[i], rights[i]));
+            }
+        }
+    }
+
+    /**
+     * Run the update batch, using the left limits as indices.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Object update() {
+        if (offHeap) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                offHeapRmq.update(lefts[i], values[i]);
+            }
+            return offHeapRmq;
+        }
+        for (int i = 0; i < OPERATIONS; i++) {
+            heapRmq.update(lefts[i], values[i]);
+        }
+        return heapRmq;
+    }
+}
@@ -0,0 +1,84 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rmq.domain.RMQ;
+
+/**
+ * Query time of the RMQ structures.
+ * <p>
+ * Each invocation runs a fixed batch of pregenerated queries, so the reported
+ * time per operation is the time of a single query without timer overhead.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    static final int QUERIES = 1024;
+
+    @Param
+    public Engine engine;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM", "SHORT", "LONG"})
+    public Distribution distribution;
+
+    private RMQ rmq;
+    private final int[] lefts = new int[QUERIES];
+    private final int[] rights = new int[QUERIES];
+    private final int[] out = new int[QUERIES];
+
+    /**
+     * Build the structure and generate the queries.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        rmq = engine.build(arr);
+        distribution.generate(rand, size, lefts, rights);
+    }
+
+    /**
+     * Run the query batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void query(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(rmq.query(lefts[i], rights[i]));
+        }
+    }
+
+    /**
+     * Run the query batch through queryAll.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int[] queryAll() {
+        rmq.queryAll(lefts, rights, out);
+        return out;
+    }
+}
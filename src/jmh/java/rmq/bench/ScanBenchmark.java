@@ -0,0 +1,98 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rmq.domain.BlockScanRMQ;
+import rmq.domain.RMQ;
+import rmq.domain.StaticRMQ;
+
+/**
+ * Query time of the scanning structure against the sparse table for fixed
+ * range lengths.
+ * <p>
+ * The vector variant only differs from the scalar one when the benchmarks
+ * are built and run with {@code -Pvector}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmark {
+    static final int QUERIES = 1024;
+
+    /**
+     * Structures to compare.
+     */
+    public enum Variant {
+        STATIC,
+        SCALAR_SCAN,
+        VECTOR_SCAN
+    }
+
+    @Param
+    public Variant variant;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"4", "16", "32", "64", "128", "256", "1024", "65536"})
+    public int length;
+
+    private RMQ rmq;
+    private final int[] lefts = new int[QUERIES];
+    private final int[] rights = new int[QUERIES];
+
+    /**
+     * Build the structure and generate queries of the given length.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        switch (variant) {
+            case STATIC:
+                rmq = new StaticRMQ(arr);
+                break;
+            case SCALAR_SCAN:
+                rmq = new BlockScanRMQ(arr, false);
+                break;
+            default:
+                rmq = new BlockScanRMQ(arr, true);
+                break;
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            lefts[i] = rand.nextInt(size - length + 1);
+            rights[i] = lefts[i] + length - 1;
+        }
+    }
+
+    /**
+     * Run the query batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void query(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(rmq.query(lefts[i], rights[i]));
+        }
+    }
+}
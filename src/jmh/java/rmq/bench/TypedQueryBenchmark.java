@@ -0,0 +1,130 @@
+package rmq.bench;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rmq.domain.DoubleDynamicRMQ;
+import rmq.domain.DoubleRMQ;
+import rmq.domain.DoubleStaticRMQ;
+import rmq.domain.DynamicRMQ;
+import rmq.domain.FlatStaticRMQ;
+import rmq.domain.LongDynamicRMQ;
+import rmq.domain.LongRMQ;
+import rmq.domain.LongStaticRMQ;
+import rmq.domain.ObjectDynamicRMQ;
+import rmq.domain.ObjectRMQ;
+import rmq.domain.ObjectStaticRMQ;
+import rmq.domain.RMQ;
+
+/**
+ * Query time of the static and dynamic structures for each element type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedQueryBenchmark {
+    static final int QUERIES = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean dynamic;
+
+    private RMQ intRmq;
+    private LongRMQ longRmq;
+    private DoubleRMQ doubleRmq;
+    private ObjectRMQ<Integer> objectRmq;
+    private final int[] lefts = new int[QUERIES];
+    private final int[] rights = new int[QUERIES];
+
+    /**
+     * Build the structures and generate the queries.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] ints = new int[size];
+        long[] longs = new long[size];
+        double[] doubles = new double[size];
+        Integer[] objects = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = rand.nextInt();
+            longs[i] = ints[i];
+            doubles[i] = ints[i];
+            objects[i] = ints[i];
+        }
+        if (dynamic) {
+            intRmq = new DynamicRMQ(ints);
+            longRmq = new LongDynamicRMQ(longs);
+            doubleRmq = new DoubleDynamicRMQ(doubles);
+            objectRmq = new ObjectDynamicRMQ<>(objects, Comparator.naturalOrder());
+        } else {
+            intRmq = new FlatStaticRMQ(ints);
+            longRmq = new LongStaticRMQ(longs);
+            doubleRmq = new DoubleStaticRMQ(doubles);
+            objectRmq = new ObjectStaticRMQ<>(objects, Comparator.naturalOrder());
+        }
+        Distribution.UNIFORM.generate(rand, size, lefts, rights);
+    }
+
+    /**
+     * Queries over int values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void queryInt(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(intRmq.query(lefts[i], rights[i]));
+        }
+    }
+
+    /**
+     * Queries over long values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void queryLong(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(longRmq.query(lefts[i], rights[i]));
+        }
+    }
+
+    /**
+     * Queries over double values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void queryDouble(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(doubleRmq.query(lefts[i], rights[i]));
+        }
+    }
+
+    /**
+     * Queries over boxed values with a comparator.
+     */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void queryObject(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(objectRmq.query(lefts[i], rights[i]));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package rmq.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rmq.domain.DynamicRMQ;
+import rmq.domain.LazyDynamicRMQ;
+import rmq.domain.WideDynamicRMQ;
+
+/**
+ * Update time of the dynamic RMQ structures, per updated element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateBenchmark {
+    static final int UPDATES = 512;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private DynamicRMQ rmq;
+    private LazyDynamicRMQ lazy;
+    private WideDynamicRMQ wide;
+    private final int[] idxArr = new int[UPDATES];
+    private final int[] valArr = new int[UPDATES];
+    private int rangeStart;
+
+    /**
+     * Build the structure and generate the updates.
+     */
+    @Setup
+    public void setup() {
+        Random rand = new Random(7);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        rmq = new DynamicRMQ(arr);
+        lazy = new LazyDynamicRMQ(arr);
+        wide = new WideDynamicRMQ(arr);
+        for (int i = 0; i < UPDATES; i++) {
+            idxArr[i] = rand.nextInt(size);
+            valArr[i] = rand.nextInt();
+        }
+        rangeStart = rand.nextInt(size - UPDATES + 1);
+    }
+
+    /**
+     * Run the update batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public DynamicRMQ update() {
+        for (int i = 0; i < UPDATES; i++) {
+            rmq.update(idxArr[i], valArr[i]);
+        }
+        return rmq;
+    }
+
+    /**
+     * Run the update batch on the 16-ary tree.
+     */
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public WideDynamicRMQ wideUpdate() {
+        for (int i = 0; i < UPDATES; i++) {
+            wide.update(idxArr[i], valArr[i]);
+        }
+        return wide;
+    }
+
+    /**
+     * Apply the update batch through updateAll.
+     */
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public DynamicRMQ updateAll() {
+        rmq.updateAll(idxArr, valArr);
+        return rmq;
+    }
+
+    /**
+     * Set a contiguous range of values through setRange.
+     */
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public DynamicRMQ setRange() {
+        rmq.setRange(rangeStart, rangeStart + UPDATES - 1, valArr);
+        return rmq;
+    }
+
+    /**
+     * Add to a contiguous range of values through lazy propagation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public LazyDynamicRMQ lazyRangeAdd() {
+        lazy.rangeAdd(rangeStart, rangeStart + UPDATES - 1, 1);
+        return lazy;
+    }
+}
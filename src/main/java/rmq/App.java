@@ -1,10 +1,21 @@
 package rmq;
 
+import rmq.ui.BatchUI;
 import rmq.ui.ConsoleUI;
 
 public class App {
+    /**
+     * Start the interactive console, or the batch mode if any arguments are
+     * given.
+     */
     public static void main(String[] args) {
-        new ConsoleUI().run();
+        if (args.length == 0) {
+            new ConsoleUI().run();
+            return;
+        }
+        int status = new BatchUI().run(args);
+        if (status != 0) {
+            System.exit(status);
+        }
     }
 }
-
@@ -0,0 +1,186 @@
+package rmq.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Range minimum query structure that switches engines with the workload
+ * <p>
+ * Built by {@link RMQs#build(int[], RMQs.Hints)} around the engine that was
+ * cheapest for the expected workload. Updates to a static engine are applied
+ * to a copy of the array, and the engine is rebuilt before the next query.
+ * Every 1024 operations the observed update rate is compared to the
+ * calibration profile, and if a dynamic engine would have been cheaper the
+ * structure switches to it. A dynamic engine is kept from then on. Every
+ * choice of engine is recorded in {@link #decisions()}, and in the metrics
+ * given with {@link RMQs.Hints#metrics(RMQMetrics)}, so that they can still
+ * be audited after the structure is gone.
+ * </p>
+ * <p>
+ * Like the engines themselves the structure is not safe for concurrent use.
+ * </p>
+ */
+public class AdaptiveRMQ implements UpdatableRMQ {
+    static final int WINDOW = 1024;
+
+    private final RMQs.Hints hints;
+    private final int size;
+    private final List<RMQs.Decision> decisions = new ArrayList<>();
+    private int[] arr;
+    private RMQs.Kind kind;
+    private RMQ rmq;
+    private boolean dirty;
+    private long queries;
+    private long updates;
+    private int windowQueries;
+    private int windowUpdates;
+
+    AdaptiveRMQ(int[] arr, RMQs.Hints hints) {
+        this.hints = hints;
+        this.size = arr.length;
+        RMQs.Decision decision = RMQs.choose(size, hints.getUpdatesPerQuery(), false, hints);
+        record(decision);
+        kind = decision.kind();
+        rmq = kind.build(arr);
+        if (!kind.dynamic()) {
+            this.arr = arr.clone();
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r]
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        count(1, 0);
+        return current().query(l, r);
+    }
+
+    @Override
+    public int queryIndex(int l, int r) {
+        count(1, 0);
+        return current().queryIndex(l, r);
+    }
+
+    @Override
+    public void queryAll(int[] l, int[] r, int[] out) {
+        count(l.length, 0);
+        current().queryAll(l, r, out);
+    }
+
+    /**
+     * Update given value in arr. Static engines are rebuilt before the next
+     * query.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    @Override
+    public void update(int idx, int value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        count(0, 1);
+        if (kind.dynamic()) {
+            ((UpdatableRMQ)rmq).update(idx, value);
+        } else {
+            arr[idx] = value;
+            dirty = true;
+        }
+    }
+
+    private RMQ current() {
+        if (dirty) {
+            rmq = kind.build(arr);
+            dirty = false;
+        }
+        return rmq;
+    }
+
+    private void count(int q, int u) {
+        queries += q;
+        updates += u;
+        windowQueries += q;
+        windowUpdates += u;
+        if (windowQueries + windowUpdates >= WINDOW) {
+            if (!kind.dynamic() && hints.isAdaptive()) {
+                reconsider();
+            }
+            windowQueries = 0;
+            windowUpdates = 0;
+        }
+    }
+
+    /**
+     * Switch to a dynamic engine if it is cheaper at the update rate of the
+     * last window.
+     */
+    private void reconsider() {
+        double rate = windowUpdates / (double)Math.max(1, windowQueries);
+        RMQs.Decision decision = RMQs.choose(size, rate, true, hints);
+        double current = RMQs.cost(hints.getProfile(), kind, size, rate);
+        double dynamic = RMQs.cost(hints.getProfile(), decision.kind(), size, rate);
+        if (dynamic < current) {
+            record(new RMQs.Decision(decision.kind(), size, rate, String.format(
+                    "switched from %s at an observed %.3f updates per query, %s", kind, rate,
+                    decision.reason())));
+            kind = decision.kind();
+            rmq = kind.build(arr);
+            arr = null;
+            dirty = false;
+        }
+    }
+
+    private void record(RMQs.Decision decision) {
+        decisions.add(decision);
+        if (hints.getMetrics() != null) {
+            hints.getMetrics().recordDecision(decision);
+        }
+    }
+
+    /**
+     * The engine currently in use.
+     *
+     * @return The engine.
+     */
+    public RMQs.Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Engine choices made so far, oldest first.
+     *
+     * @return The decisions.
+     */
+    public List<RMQs.Decision> decisions() {
+        return Collections.unmodifiableList(decisions);
+    }
+
+    /**
+     * Number of queries answered, counting each query of a batch.
+     *
+     * @return The number of queries.
+     */
+    public long queryCount() {
+        return queries;
+    }
+
+    /**
+     * Number of updates made.
+     *
+     * @return The number of updates.
+     */
+    public long updateCount() {
+        return updates;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + current();
+    }
+}
@@ -0,0 +1,160 @@
+package rmq.domain;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Associative binary operator over integers with an identity element
+ * <p>
+ * Describes how {@link StaticRangeAggregate} and {@link DynamicRangeAggregate}
+ * combine values. Operators that are also idempotent, meaning that
+ * op(x, x) == x, can be answered in constant time with a sparse table since
+ * overlapping ranges do not change the result.
+ * </p>
+ * <p>
+ * The predefined operators are recognized by the structures and combined
+ * without calling through the {@link IntBinaryOperator}, so that for example
+ * {@link #MIN} is as fast as the minimum specific structures. Other operators
+ * are called through the interface.
+ * </p>
+ */
+public final class Aggregate {
+    static final int CUSTOM = 0;
+    static final int MIN_KIND = 1;
+    static final int MAX_KIND = 2;
+    static final int AND_KIND = 3;
+    static final int OR_KIND = 4;
+    static final int SUM_KIND = 5;
+
+    /**
+     * Minimum, identity Integer.MAX_VALUE.
+     */
+    public static final Aggregate MIN =
+            new Aggregate(MIN_KIND, Math::min, Integer.MAX_VALUE, true);
+
+    /**
+     * Maximum, identity Integer.MIN_VALUE.
+     */
+    public static final Aggregate MAX =
+            new Aggregate(MAX_KIND, Math::max, Integer.MIN_VALUE, true);
+
+    /**
+     * Bitwise and, identity -1.
+     */
+    public static final Aggregate AND = new Aggregate(AND_KIND, (a, b) -> a & b, -1, true);
+
+    /**
+     * Bitwise or, identity 0.
+     */
+    public static final Aggregate OR = new Aggregate(OR_KIND, (a, b) -> a | b, 0, true);
+
+    /**
+     * Greatest common divisor of the absolute values, identity 0.
+     */
+    public static final Aggregate GCD = new Aggregate(CUSTOM, Aggregate::gcd, 0, true);
+
+    /**
+     * Sum with int overflow, identity 0. Not idempotent.
+     */
+    public static final Aggregate SUM = new Aggregate(SUM_KIND, Integer::sum, 0, false);
+
+    final int kind;
+    private final IntBinaryOperator op;
+    private final int identity;
+    private final boolean idempotent;
+
+    private Aggregate(int kind, IntBinaryOperator op, int identity, boolean idempotent) {
+        this.kind = kind;
+        this.op = op;
+        this.identity = identity;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Aggregate for a custom operator.
+     *
+     * @param op Associative operator.
+     * @param identity Identity element, op(identity, x) == op(x, identity) == x.
+     * @param idempotent Whether op(x, x) == x for every x.
+     * @return The aggregate.
+     */
+    public static Aggregate of(IntBinaryOperator op, int identity, boolean idempotent) {
+        if (op == null) {
+            throw new NullPointerException("op");
+        }
+        return new Aggregate(CUSTOM, op, identity, idempotent);
+    }
+
+    /**
+     * Greatest common divisor of the absolute values of a and b.
+     *
+     * @param a First value.
+     * @param b Second value.
+     * @return The greatest common divisor, or 0 if both are 0.
+     */
+    public static int gcd(int a, int b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Combine two values.
+     *
+     * @param a Left value.
+     * @param b Right value.
+     * @return op(a, b).
+     */
+    public int apply(int a, int b) {
+        switch (kind) {
+            case MIN_KIND:
+                return a < b ? a : b;
+            case MAX_KIND:
+                return a > b ? a : b;
+            case AND_KIND:
+                return a & b;
+            case OR_KIND:
+                return a | b;
+            case SUM_KIND:
+                return a + b;
+            default:
+                return op.applyAsInt(a, b);
+        }
+    }
+
+    /**
+     * Identity element of the operator.
+     *
+     * @return The identity element.
+     */
+    public int identity() {
+        return identity;
+    }
+
+    /**
+     * Whether op(x, x) == x for every x.
+     *
+     * @return True if the operator is idempotent.
+     */
+    public boolean idempotent() {
+        return idempotent;
+    }
+
+    /**
+     * Build a static structure for arr, a sparse table with constant time
+     * queries if the operator is idempotent and a segment tree otherwise.
+     *
+     * @param arr The input array.
+     * @return The structure.
+     */
+    public RangeAggregate build(int[] arr) {
+        if (idempotent) {
+            return new StaticRangeAggregate(arr, this);
+        }
+        return new DynamicRangeAggregate(arr, this);
+    }
+}
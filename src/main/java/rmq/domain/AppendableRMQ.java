@@ -0,0 +1,133 @@
+package rmq.domain;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Range minimum query structure for an array that grows at the end
+ * <p>
+ * A sparse table where level k holds the minima of all ranges of length 2^k.
+ * Appending a value only adds one entry to the end of each level, so append
+ * takes O(log n) amortized time, and removing the last value only shrinks
+ * the size. Queries take constant time and the structure uses O(n log n)
+ * space.
+ * </p>
+ */
+public class AppendableRMQ implements RMQ {
+    private int[][] levels = new int[0][];
+    private int size;
+
+    /**
+     * Empty range minimum query structure.
+     */
+    public AppendableRMQ() {
+    }
+
+    /**
+     * Range minimum query structure initialized with the values of arr.
+     *
+     * @param arr The initial values.
+     */
+    public AppendableRMQ(int[] arr) {
+        for (int value : arr) {
+            append(value);
+        }
+    }
+
+    /**
+     * Add value to the end of the array in O(log n) amortized time.
+     *
+     * @param value Value to append.
+     */
+    public void append(int value) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("array is full");
+        }
+        int levelCount = 32 - Integer.numberOfLeadingZeros(size + 1);
+        if (levels.length < levelCount) {
+            levels = Arrays.copyOf(levels, levelCount);
+        }
+        for (int k = 0; k < levelCount; k++) {
+            // The new range of length 2^k ends at the new value.
+            int i = size - (1 << k) + 1;
+            if (levels[k] == null) {
+                levels[k] = new int[Math.max(16, i + 1)];
+            } else if (levels[k].length <= i) {
+                levels[k] = Arrays.copyOf(levels[k], grow(levels[k].length, i + 1));
+            }
+            if (k == 0) {
+                levels[0][i] = value;
+            } else {
+                int a = levels[k - 1][i];
+                int b = levels[k - 1][i + (1 << (k - 1))];
+                levels[k][i] = a < b ? a : b;
+            }
+        }
+        size++;
+    }
+
+    /**
+     * New capacity for a level that needs to fit at least min entries.
+     */
+    private static int grow(int capacity, int min) {
+        long doubled = Math.max(2L * capacity, min);
+        return (int)Math.min(doubled, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Remove the last value of the array in constant time.
+     *
+     * @return The removed value.
+     */
+    public int pop() {
+        if (size == 0) {
+            throw new NoSuchElementException("array is empty");
+        }
+        size--;
+        return levels[0][size];
+    }
+
+    /**
+     * Current number of values in the array.
+     *
+     * @return The size of the array.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l = " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r = " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(r - l + 1);
+        int[] level = levels[k];
+        int a = level[l];
+        int b = level[r - (1 << k) + 1];
+        return a < b ? a : b;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < levels.length && (1 << k) <= size; k++) {
+            sb.append("\n");
+            sb.append(Arrays.toString(Arrays.copyOf(levels[k], size - (1 << k) + 1)));
+        }
+        return sb.toString();
+    }
+}
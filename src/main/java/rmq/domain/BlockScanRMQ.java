@@ -0,0 +1,129 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Static range minimum query structure that scans short ranges
+ * <p>
+ * A minimum over a few dozen consecutive ints is a sequential scan of one or
+ * two cache lines, which with SIMD instructions is faster than the two
+ * dependent loads of a sparse table. Ranges shorter than two blocks of 64
+ * elements are therefore scanned directly, or shorter than 32 elements when
+ * scanning without SIMD. Longer ranges scan the partial
+ * blocks at both ends and answer the whole blocks between them from a
+ * {@link FlatStaticRMQ} over the block minima, which has n / 64 elements.
+ * </p>
+ * <p>
+ * The scans use the incubating Vector API when the project is built with
+ * {@code -Pvector} and the {@code jdk.incubator.vector} module is present at
+ * run time, and a scalar loop otherwise. Both give the same results.
+ * </p>
+ */
+public class BlockScanRMQ implements RMQ {
+    private static final int BLOCK_BITS = 6;
+    private static final int BLOCK = 1 << BLOCK_BITS;
+    private static final int SCALAR_SCAN = 32;
+    private static final BlockScanner VECTOR = loadVector();
+
+    private final int[] arr;
+    private final BlockScanner scanner;
+    private final int scanLimit;
+    private final FlatStaticRMQ blocks;
+
+    /**
+     * Static range minimum query structure for given integer array, using
+     * the Vector API if it is available.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public BlockScanRMQ(int[] arr) {
+        this(arr, true);
+    }
+
+    /**
+     * Static range minimum query structure for given integer array.
+     *
+     * @param arr The input array to compute the range minima for.
+     * @param vector Whether to use the Vector API if it is available.
+     */
+    public BlockScanRMQ(int[] arr, boolean vector) {
+        this.arr = arr.clone();
+        this.scanner = vector ? VECTOR : null;
+        this.scanLimit = scanner != null ? 2 * BLOCK : SCALAR_SCAN;
+        int[] blockMins = new int[(arr.length + BLOCK - 1) >> BLOCK_BITS];
+        for (int b = 0; b < blockMins.length; b++) {
+            int start = b << BLOCK_BITS;
+            blockMins[b] = scan(start, Math.min(start + BLOCK, arr.length));
+        }
+        blocks = new FlatStaticRMQ(blockMins);
+    }
+
+    private static BlockScanner loadVector() {
+        try {
+            return (BlockScanner)Class.forName("rmq.domain.VectorBlockScanner")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not built with -Pvector, or the module was not added at run time.
+            return null;
+        }
+    }
+
+    /**
+     * Whether the Vector API scanner was found.
+     *
+     * @return True if scans can use the Vector API.
+     */
+    public static boolean vectorAvailable() {
+        return VECTOR != null;
+    }
+
+    /**
+     * Whether this structure scans with the Vector API.
+     *
+     * @return True if scans use the Vector API.
+     */
+    public boolean vectorized() {
+        return scanner != null;
+    }
+
+    /**
+     * Minimum of arr[from..to).
+     */
+    private int scan(int from, int to) {
+        if (scanner != null) {
+            return scanner.min(arr, from, to);
+        }
+        int res = Integer.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            res = arr[i] < res ? arr[i] : res;
+        }
+        return res;
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        Ranges.check(arr.length, l, r);
+        int bl = l >> BLOCK_BITS;
+        int br = r >> BLOCK_BITS;
+        if (r - l < scanLimit || bl == br) {
+            return scan(l, r + 1);
+        }
+        int res = Math.min(scan(l, (bl + 1) << BLOCK_BITS), scan(br << BLOCK_BITS, r + 1));
+        if (bl + 1 < br) {
+            res = Math.min(res, blocks.query(bl + 1, br - 1));
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(arr) + blocks.toString();
+    }
+}
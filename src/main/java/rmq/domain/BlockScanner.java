@@ -0,0 +1,13 @@
+package rmq.domain;
+
+/**
+ * Minimum of a short run of an array, used for the scans of
+ * {@link BlockScanRMQ}. Implemented with the Vector API in the optional
+ * vector source set.
+ */
+interface BlockScanner {
+    /**
+     * Minimum of arr[from..to), or Integer.MAX_VALUE if the run is empty.
+     */
+    int min(int[] arr, int from, int to);
+}
@@ -0,0 +1,233 @@
+package rmq.domain;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Measured costs of the engines used by {@link RMQs}
+ * <p>
+ * Holds the time of a random query, a random update and building the
+ * structure per element for every {@link RMQs.Kind}. The defaults are rough
+ * numbers for arrays of around a million elements on a desktop machine.
+ * {@link #measure(int)} runs a short micro benchmark instead, and the result
+ * can be stored with {@link #store(Path)} so that it only needs to be
+ * measured once per machine.
+ * </p>
+ */
+public final class CalibrationProfile {
+    private static final int QUERY = 0;
+    private static final int UPDATE = 1;
+    private static final int BUILD = 2;
+
+    // Query results are stored here so that they can not be optimized away.
+    private static volatile long blackhole;
+
+    private final Map<RMQs.Kind, double[]> costs = new EnumMap<>(RMQs.Kind.class);
+
+    private CalibrationProfile() {
+    }
+
+    /**
+     * Profile with the given costs, in the order of {@link RMQs.Kind}.
+     *
+     * @param queryNanos Time of a random query in nanoseconds.
+     * @param updateNanos Time of a random update in nanoseconds, ignored for
+     *     static engines.
+     * @param buildNanosPerElement Build time per element in nanoseconds.
+     * @return The profile.
+     */
+    public static CalibrationProfile of(double[] queryNanos, double[] updateNanos,
+            double[] buildNanosPerElement) {
+        RMQs.Kind[] kinds = RMQs.Kind.values();
+        if (queryNanos.length != kinds.length || updateNanos.length != kinds.length
+                || buildNanosPerElement.length != kinds.length) {
+            throw new IllegalArgumentException("need costs for " + kinds.length + " engines");
+        }
+        CalibrationProfile profile = new CalibrationProfile();
+        for (RMQs.Kind kind : kinds) {
+            int k = kind.ordinal();
+            profile.costs.put(kind, new double[] {queryNanos[k], updateNanos[k],
+                buildNanosPerElement[k]});
+        }
+        return profile;
+    }
+
+    /**
+     * Default costs for arrays of around a million elements.
+     *
+     * @return The profile.
+     */
+    public static CalibrationProfile defaults() {
+        return of(new double[] {60, 80, 300, 100},
+                new double[] {Double.NaN, Double.NaN, 150, 100},
+                new double[] {20, 5, 3, 4});
+    }
+
+    /**
+     * Measure the costs on this machine with arrays of the given size. Takes
+     * a few seconds for a million elements.
+     *
+     * @param size Number of elements to measure with.
+     * @return The profile.
+     */
+    public static CalibrationProfile measure(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        Random rand = new Random(1);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt();
+        }
+        int ops = 10000;
+        int[] lefts = new int[ops];
+        int[] rights = new int[ops];
+        for (int i = 0; i < ops; i++) {
+            lefts[i] = rand.nextInt(size);
+            rights[i] = lefts[i] + rand.nextInt(size - lefts[i]);
+        }
+        RMQs.Kind[] kinds = RMQs.Kind.values();
+        double[] query = new double[kinds.length];
+        double[] update = new double[kinds.length];
+        double[] build = new double[kinds.length];
+        long sink = 0;
+        for (RMQs.Kind kind : kinds) {
+            int k = kind.ordinal();
+            long[] times = new long[5];
+            RMQ rmq = null;
+            for (int run = 0; run < times.length; run++) {
+                long t = System.nanoTime();
+                rmq = kind.build(arr);
+                times[run] = System.nanoTime() - t;
+            }
+            build[k] = median(times) / size;
+            for (int run = 0; run < times.length; run++) {
+                long t = System.nanoTime();
+                for (int i = 0; i < ops; i++) {
+                    sink += rmq.query(lefts[i], rights[i]);
+                }
+                times[run] = System.nanoTime() - t;
+            }
+            query[k] = median(times) / ops;
+            update[k] = Double.NaN;
+            if (rmq instanceof UpdatableRMQ) {
+                UpdatableRMQ dynamic = (UpdatableRMQ)rmq;
+                for (int run = 0; run < times.length; run++) {
+                    long t = System.nanoTime();
+                    for (int i = 0; i < ops; i++) {
+                        dynamic.update(lefts[i], rights[i]);
+                    }
+                    times[run] = System.nanoTime() - t;
+                }
+                update[k] = median(times) / ops;
+            }
+        }
+        blackhole = sink;
+        return of(query, update, build);
+    }
+
+    private static double median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Read a profile written by {@link #store(Path)}.
+     *
+     * @param file The file to read.
+     * @return The profile.
+     * @throws IOException If reading fails or the file misses an engine.
+     */
+    public static CalibrationProfile load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        RMQs.Kind[] kinds = RMQs.Kind.values();
+        double[][] values = new double[3][kinds.length];
+        String[] names = {"query", "update", "build"};
+        for (RMQs.Kind kind : kinds) {
+            for (int c = 0; c < names.length; c++) {
+                String key = kind + "." + names[c];
+                String value = props.getProperty(key);
+                if (value == null) {
+                    throw new IOException("missing " + key + ": " + file);
+                }
+                try {
+                    values[c][kind.ordinal()] = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("invalid " + key + ": " + file, e);
+                }
+            }
+        }
+        return of(values[QUERY], values[UPDATE], values[BUILD]);
+    }
+
+    /**
+     * Write the profile as a properties file.
+     *
+     * @param file The file to write to.
+     * @throws IOException If writing fails.
+     */
+    public void store(Path file) throws IOException {
+        Properties props = new Properties();
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            props.setProperty(kind + ".query", Double.toString(queryNanos(kind)));
+            props.setProperty(kind + ".update", Double.toString(updateNanos(kind)));
+            props.setProperty(kind + ".build", Double.toString(buildNanosPerElement(kind)));
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            props.store(out, "RMQ calibration profile, times in nanoseconds");
+        }
+    }
+
+    /**
+     * Time of a random query in nanoseconds.
+     *
+     * @param kind The engine.
+     * @return The time.
+     */
+    public double queryNanos(RMQs.Kind kind) {
+        return costs.get(kind)[QUERY];
+    }
+
+    /**
+     * Time of a random update in nanoseconds, NaN for static engines.
+     *
+     * @param kind The engine.
+     * @return The time.
+     */
+    public double updateNanos(RMQs.Kind kind) {
+        return costs.get(kind)[UPDATE];
+    }
+
+    /**
+     * Build time per element in nanoseconds.
+     *
+     * @param kind The engine.
+     * @return The time.
+     */
+    public double buildNanosPerElement(RMQs.Kind kind) {
+        return costs.get(kind)[BUILD];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            sb.append(String.format("%s: query %.1f ns, update %.1f ns, build %.2f ns/element%n",
+                    kind, queryNanos(kind), updateNanos(kind), buildNanosPerElement(kind)));
+        }
+        return sb.toString();
+    }
+}
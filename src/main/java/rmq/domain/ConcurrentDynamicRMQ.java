@@ -0,0 +1,175 @@
+package rmq.domain;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe dynamic range minimum query structure for given integer array
+ * <p>
+ * The same segment tree as {@link DynamicRMQ}, but any number of threads may
+ * query and update it concurrently without locking. Updates never wait,
+ * and queries retry while updates are in progress.
+ * </p>
+ * <p>
+ * Each node stores its value in the low 32 bits and a version counter in the
+ * high 32 bits of a long. An update writes the leaf and then refreshes every
+ * ancestor by reading the children and compare-and-setting the node. The
+ * version counter makes a refresh fail if the node was changed after it was
+ * read, and every ancestor is refreshed twice: if both attempts fail, some
+ * other thread has refreshed the node after the children were read by the
+ * first attempt, so the node still reflects this update.
+ * </p>
+ * <p>
+ * Queries are linearizable: a query returns the minimum of the range at a
+ * single point in time between its start and its end. Updates count
+ * themselves in started before writing the leaf and in finished once every
+ * ancestor is refreshed. A query walks the tree only when the two counters
+ * are equal, so that no update is in progress, and retries if started has
+ * changed by the end of the walk. Under a constant stream of updates a
+ * query may therefore retry many times, and it yields the processor after
+ * a few failed attempts.
+ * </p>
+ */
+public class ConcurrentDynamicRMQ implements UpdatableRMQ {
+    private static final long VERSION = 1L << 32;
+    private static final long VALUE_MASK = VERSION - 1;
+    private static final int SPINS = 16;
+
+    private final int size;
+    private final int half;
+    private final AtomicLongArray st;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+
+    /**
+     * Thread safe dynamic range minimum query structure for given integer
+     * array.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public ConcurrentDynamicRMQ(int[] arr) {
+        this.size = arr.length;
+        this.half = Integer.highestOneBit(Math.max(1, 2 * arr.length - 1));
+        int[] init = new int[half * 2];
+        Arrays.fill(init, Integer.MAX_VALUE);
+        System.arraycopy(arr, 0, init, half, arr.length);
+        for (int i = half - 1; i > 0; i--) {
+            init[i] = Math.min(init[i * 2], init[i * 2 + 1]);
+        }
+        st = new AtomicLongArray(init.length);
+        for (int i = 0; i < init.length; i++) {
+            st.set(i, init[i] & VALUE_MASK);
+        }
+    }
+
+    /**
+     * Update given value in arr. Safe to call concurrently with other updates
+     * and queries.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    @Override
+    public void update(int idx, int value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        idx += half;
+        started.incrementAndGet();
+        long old = st.get(idx);
+        while (!st.compareAndSet(idx, old, next(old, value))) {
+            old = st.get(idx);
+        }
+        for (idx /= 2; idx > 0; idx /= 2) {
+            refresh(idx);
+            refresh(idx);
+        }
+        finished.incrementAndGet();
+    }
+
+    /**
+     * Try once to set node to the minimum of its children.
+     */
+    private void refresh(int node) {
+        long old = st.get(node);
+        int a = (int)st.get(node * 2);
+        int b = (int)st.get(node * 2 + 1);
+        st.compareAndSet(node, old, next(old, a < b ? a : b));
+    }
+
+    /**
+     * The node value following old, with the version incremented.
+     */
+    private static long next(long old, int value) {
+        return ((old & ~VALUE_MASK) + VERSION) | (value & VALUE_MASK);
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time when no
+     * update runs concurrently. Safe to call concurrently with updates.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l: " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r: " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        for (int attempt = 1; ; attempt++) {
+            // The walk only reads a consistent tree if no update started
+            // before it without finishing, and none started during it.
+            long version = started.get();
+            if (finished.get() == version) {
+                int res = walk(l, r);
+                if (started.get() == version) {
+                    return res;
+                }
+            }
+            if (attempt % SPINS == 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Minimum of the nodes covering arr[l..r].
+     */
+    private int walk(int l, int r) {
+        l += half;
+        r += half;
+        int res = Integer.MAX_VALUE;
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                int v = (int)st.get(l);
+                res = v < res ? v : res;
+                l++;
+            }
+            if ((r & 1) == 0) {
+                int v = (int)st.get(r);
+                res = v < res ? v : res;
+                r--;
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        int[] values = new int[st.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (int)st.get(i);
+        }
+        return Arrays.toString(values);
+    }
+}
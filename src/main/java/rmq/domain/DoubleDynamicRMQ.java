@@ -0,0 +1,116 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic range minimum query structure for given double array
+ * <p>
+ * The segment tree of {@link DynamicRMQ} for double values. Supports updates
+ * and range minimum queries in O(log n) time and O(n) space without boxing.
+ * </p>
+ * <p>
+ * NaN values have no place in the order of the other values, so they are
+ * rejected.
+ * </p>
+ */
+public class DoubleDynamicRMQ implements DoubleRMQ {
+    private final int size;
+    private final int half;
+    private final double[] st;
+
+    /**
+     * Dynamic range minimum query structure for given double array.
+     *
+     * @param arr The input array to compute the range minima for. May not
+     *     contain NaN values.
+     */
+    public DoubleDynamicRMQ(double[] arr) {
+        Ranges.checkNotNaN(arr);
+        this.size = arr.length;
+        this.half = Integer.highestOneBit(Math.max(1, 2 * arr.length - 1));
+        st = new double[half * 2];
+        Arrays.fill(st, Double.POSITIVE_INFINITY);
+        System.arraycopy(arr, 0, st, half, arr.length);
+        for (int i = half - 1; i > 0; i--) {
+            st[i] = Math.min(st[i * 2], st[i * 2 + 1]);
+        }
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set. May not be NaN.
+     */
+    public void update(int idx, double value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN is not supported");
+        }
+        idx += half;
+        st[idx] = value;
+        for (idx /= 2; idx > 0; idx /= 2) {
+            st[idx] = Math.min(st[idx * 2], st[idx * 2 + 1]);
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public double query(int l, int r) {
+        Ranges.check(size, l, r);
+        return rangeMin(l, r);
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, double[] out) {
+        Ranges.checkAll(size, l, r, out.length);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = rangeMin(l[i], r[i]);
+        }
+    }
+
+    /**
+     * Minimum of arr[l..r] for a valid range.
+     */
+    private double rangeMin(int l, int r) {
+        l += half;
+        r += half;
+        double res = Double.POSITIVE_INFINITY;
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                res = st[l] < res ? st[l] : res;
+                l++;
+            }
+            if ((r & 1) == 0) {
+                res = st[r] < res ? st[r] : res;
+                r--;
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(st);
+    }
+}
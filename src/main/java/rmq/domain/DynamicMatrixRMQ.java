@@ -0,0 +1,129 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic minimum query structure for rectangles of an integer matrix
+ * <p>
+ * A segment tree over the rows whose nodes are segment trees over the
+ * columns. Both dimensions use the bottom-up layout where the n leaves are
+ * at positions n..2n-1 and node i has children 2i and 2i + 1, so any size
+ * works without padding and the whole structure is a single array of
+ * 2n * 2m ints. Queries and point updates take O(log n log m) time.
+ * </p>
+ */
+public class DynamicMatrixRMQ implements MatrixRMQ {
+    private final int rows;
+    private final int cols;
+    private final int width;
+    private final int[] st;
+
+    /**
+     * Dynamic minimum query structure for rectangles of given matrix.
+     *
+     * @param matrix The input matrix, all rows of the same length.
+     * @throws IllegalArgumentException If the rows differ in length, or the
+     *     structure does not fit in an array.
+     */
+    public DynamicMatrixRMQ(int[][] matrix) {
+        this.rows = matrix.length;
+        this.cols = Ranges.columns(matrix);
+        if (4L * rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("matrix too large: " + rows + " x " + cols);
+        }
+        this.width = 2 * cols;
+        st = new int[2 * rows * width];
+        Arrays.fill(st, Integer.MAX_VALUE);
+        for (int i = 0; i < rows; i++) {
+            int row = (rows + i) * width;
+            System.arraycopy(matrix[i], 0, st, row + cols, cols);
+            for (int j = cols - 1; j > 0; j--) {
+                st[row + j] = Math.min(st[row + 2 * j], st[row + 2 * j + 1]);
+            }
+        }
+        for (int i = rows - 1; i > 0; i--) {
+            int row = i * width;
+            int left = 2 * i * width;
+            int right = left + width;
+            for (int j = 1; j < width; j++) {
+                st[row + j] = Math.min(st[left + j], st[right + j]);
+            }
+        }
+    }
+
+    /**
+     * Update given value in the matrix in O(log n log m) time.
+     *
+     * @param row Row of value to update.
+     * @param col Column of value to update.
+     * @param value Value to set.
+     */
+    public void update(int row, int col, int value) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("row = " + row);
+        }
+        if (col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("col = " + col);
+        }
+        int i = (rows + row) * width;
+        int j = cols + col;
+        st[i + j] = value;
+        for (int k = j / 2; k > 0; k /= 2) {
+            st[i + k] = Math.min(st[i + 2 * k], st[i + 2 * k + 1]);
+        }
+        for (int r = (rows + row) / 2; r > 0; r /= 2) {
+            int node = r * width;
+            int left = 2 * r * width;
+            int right = left + width;
+            for (int k = j; k > 0; k /= 2) {
+                st[node + k] = Math.min(st[left + k], st[right + k]);
+            }
+        }
+    }
+
+    /**
+     * Compute the minimum value in the rectangle of rows r1..r2 and columns
+     * c1..c2 in O(log n log m) time.
+     *
+     * @param r1 First row of the rectangle.
+     * @param c1 First column of the rectangle.
+     * @param r2 Last row of the rectangle.
+     * @param c2 Last column of the rectangle.
+     * @return The minimum value in the rectangle.
+     */
+    @Override
+    public int query(int r1, int c1, int r2, int c2) {
+        Ranges.check(rows, cols, r1, c1, r2, c2);
+        int res = Integer.MAX_VALUE;
+        for (int lo = r1 + rows, hi = r2 + rows + 1; lo < hi; lo /= 2, hi /= 2) {
+            if ((lo & 1) == 1) {
+                res = Math.min(res, queryRow(lo++ * width, c1, c2));
+            }
+            if ((hi & 1) == 1) {
+                res = Math.min(res, queryRow(--hi * width, c1, c2));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Minimum of columns c1..c2 in the column tree starting at st[row].
+     */
+    private int queryRow(int row, int c1, int c2) {
+        int res = Integer.MAX_VALUE;
+        for (int lo = c1 + cols, hi = c2 + cols + 1; lo < hi; lo /= 2, hi /= 2) {
+            if ((lo & 1) == 1) {
+                res = Math.min(res, st[row + lo++]);
+            }
+            if ((hi & 1) == 1) {
+                res = Math.min(res, st[row + --hi]);
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicMatrixRMQ[" + rows + " x " + cols + "]";
+    }
+}
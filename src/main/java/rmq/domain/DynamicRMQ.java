@@ -1,6 +1,7 @@
 package rmq.domain;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Dynamic range minimum query structure for given integer array
@@ -9,7 +10,7 @@ import java.util.Arrays;
  * queries for a given array in O(log n) time and O(n) space.
  * </p>
  */
-public class DynamicRMQ implements RMQ {
+public class DynamicRMQ implements UpdatableRMQ {
     private final int size;
     private final int[] st;
 
@@ -23,12 +24,36 @@ public class DynamicRMQ implements RMQ {
      * @param arr The input array to compute the range minima for.
      */
     public DynamicRMQ(int[] arr) {
+        this(arr, null);
+    }
+    
+    /**
+     * Dynamic range minimum query structure for given integer array
+     * <p>
+     * The tree is built level by level from the leaves up. Levels with enough
+     * nodes are split between the workers of the given pool. The result is 
+     * identical to the sequential build.
+     * </p>
+     * 
+     * @param arr The input array to compute the range minima for.
+     * @param pool Pool used for building, or null to build sequentially.
+     */
+    public DynamicRMQ(int[] arr, ForkJoinPool pool) {
         this.size = arr.length;
         int s = (int)Math.pow(2, Math.ceil(Math.log(2 * arr.length) / Math.log(2)));
         st = new int[s];
         Arrays.fill(st, Integer.MAX_VALUE);
         System.arraycopy(arr, 0, st, s / 2, arr.length);
-        for (int i = s / 2 - 1; i > 0; i--) {
+        for (int level = s / 4; level > 0; level /= 2) {
+            ParallelFill.fill(pool, level, level * 2, this::fillLevel);
+        }
+    }
+    
+    /**
+     * Recompute the internal nodes st[from..to) from their children.
+     */
+    private void fillLevel(int from, int to) {
+        for (int i = from; i < to; i++) {
             st[i] = Math.min(st[i * 2], st[i * 2 + 1]);
         }
     }
@@ -39,14 +64,89 @@ public class DynamicRMQ implements RMQ {
      * @param idx Index of value to update.
      * @param value Value to set.
      */
+    @Override
     public void update(int idx, int value) {
         idx += st.length / 2;
         st[idx] = value;
-        for (idx /= 2; idx > 1; idx /= 2) {
+        for (idx /= 2; idx > 0; idx /= 2) {
             st[idx] = Math.min(st[idx * 2], st[idx * 2 + 1]);
         }
     }
     
+    /**
+     * Update multiple values in arr.
+     * <p>
+     * All leaves are written first and every affected internal node is then
+     * recomputed exactly once, level by level. If an index occurs more than 
+     * once, the last value is used.
+     * </p>
+     * 
+     * @param idx Indices of values to update.
+     * @param value Values to set.
+     */
+    public void updateAll(int[] idx, int[] value) {
+        if (idx.length != value.length) {
+            throw new IllegalArgumentException("idx and value need to have the same length");
+        }
+        for (int i = 0; i < idx.length; i++) {
+            if (idx[i] < 0 || idx[i] >= size) {
+                throw new IndexOutOfBoundsException("idx[" + i + "] = " + idx[i]);
+            }
+        }
+        int half = st.length / 2;
+        int[] nodes = new int[idx.length];
+        for (int i = 0; i < idx.length; i++) {
+            st[idx[i] + half] = value[i];
+            nodes[i] = (idx[i] + half) / 2;
+        }
+        Arrays.sort(nodes);
+        int count = nodes.length;
+        while (count > 0 && nodes[0] > 0) {
+            int parents = 0;
+            int last = -1;
+            for (int i = 0; i < count; i++) {
+                int node = nodes[i];
+                if (node == last) {
+                    continue;
+                }
+                last = node;
+                st[node] = Math.min(st[node * 2], st[node * 2 + 1]);
+                nodes[parents++] = node / 2;
+            }
+            count = parents;
+        }
+    }
+    
+    /**
+     * Set the values in arr[l..r] in O(k + log n) time, where k is the 
+     * length of the range.
+     * 
+     * @param l Left limit of the range (inclusive).
+     * @param r Right limit of the range (inclusive).
+     * @param values Values to set, values[i - l] is the new value of arr[i].
+     */
+    public void setRange(int l, int r, int[] values) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l: " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r: " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        if (values.length != r - l + 1) {
+            throw new IllegalArgumentException("values needs to have length " + (r - l + 1));
+        }
+        int half = st.length / 2;
+        System.arraycopy(values, 0, st, l + half, values.length);
+        for (int lo = (l + half) / 2, hi = (r + half) / 2; lo > 0; lo /= 2, hi /= 2) {
+            for (int i = lo; i <= hi; i++) {
+                st[i] = Math.min(st[i * 2], st[i * 2 + 1]);
+            }
+        }
+    }
+    
     /**
      * Compute the minimum  value in arr[l..r] in constant time
      * 
@@ -82,6 +182,88 @@ public class DynamicRMQ implements RMQ {
         }
         return res;
     }
+    
+    /**
+     * Compute the index of the minimum value in arr[l..r] in O(log n) time.
+     * If the minimum occurs more than once, the leftmost index is returned.
+     * <p>
+     * Finds the leftmost of the nodes covering the range that holds the 
+     * minimum, and descends from it to the leftmost leaf with that value.
+     * </p>
+     * 
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The leftmost index of the minimum value in arr[l..r].
+     */
+    @Override
+    public int queryIndex(int l, int r) {
+        Ranges.check(size, l, r);
+        int half = st.length / 2;
+        l += half;
+        r += half;
+        // Nodes on the left side are visited left to right and nodes on the
+        // right side right to left, and all of the left ones come first.
+        int leftNode = 0;
+        int rightNode = 0;
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                if (leftNode == 0 || st[l] < st[leftNode]) {
+                    leftNode = l;
+                }
+                l++;
+            }
+            if ((r & 1) == 0) {
+                if (rightNode == 0 || st[r] <= st[rightNode]) {
+                    rightNode = r;
+                }
+                r--;
+            }
+            l /= 2;
+            r /= 2;
+        }
+        int node = leftNode;
+        if (leftNode == 0 || rightNode != 0 && st[rightNode] < st[leftNode]) {
+            node = rightNode;
+        }
+        while (node < half) {
+            node = st[node * 2] == st[node] ? node * 2 : node * 2 + 1;
+        }
+        return node - half;
+    }
+    
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     * 
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, int[] out) {
+        Ranges.checkAll(size, l, r, out);
+        int half = st.length / 2;
+        for (int i = 0; i < l.length; i++) {
+            int lo = l[i] + half;
+            int hi = r[i] + half;
+            int res = st[lo];
+            while (lo <= hi) {
+                if ((lo & 1) == 1) {
+                    res = st[lo] < res ? st[lo] : res;
+                    lo++;
+                }
+                if ((hi & 1) == 0) {
+                    res = st[hi] < res ? st[hi] : res;
+                    hi--;
+                }
+                lo >>= 1;
+                hi >>= 1;
+            }
+            out[i] = res;
+        }
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,93 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic range query structure for an associative operator
+ * <p>
+ * The same segment tree as {@link DynamicRMQ} with the minimum replaced by an
+ * {@link Aggregate}. The operator only needs to be associative, and values
+ * are combined in array order so it does not need to be commutative either.
+ * Queries and updates take O(log n) time and the structure uses O(n) space.
+ * </p>
+ */
+public class DynamicRangeAggregate implements RangeAggregate {
+    private final Aggregate agg;
+    private final int size;
+    private final int half;
+    private final int[] st;
+
+    /**
+     * Dynamic range query structure for given integer array and operator.
+     *
+     * @param arr The input array.
+     * @param agg Associative operator to combine values with.
+     */
+    public DynamicRangeAggregate(int[] arr, Aggregate agg) {
+        this.agg = agg;
+        this.size = arr.length;
+        this.half = Integer.highestOneBit(Math.max(1, 2 * arr.length - 1));
+        st = new int[half * 2];
+        Arrays.fill(st, agg.identity());
+        System.arraycopy(arr, 0, st, half, arr.length);
+        for (int i = half - 1; i > 0; i--) {
+            st[i] = agg.apply(st[i * 2], st[i * 2 + 1]);
+        }
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    public void update(int idx, int value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        idx += half;
+        st[idx] = value;
+        for (idx /= 2; idx > 0; idx /= 2) {
+            st[idx] = agg.apply(st[idx * 2], st[idx * 2 + 1]);
+        }
+    }
+
+    /**
+     * Combine the values in arr[l..r] in O(log n) time.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return op(arr[l], ..., arr[r]).
+     */
+    @Override
+    public int query(int l, int r) {
+        Ranges.check(size, l, r);
+        l += half;
+        r += half;
+        int left = agg.identity();
+        int right = agg.identity();
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                left = agg.apply(left, st[l]);
+                l++;
+            }
+            if ((r & 1) == 0) {
+                right = agg.apply(st[r], right);
+                r--;
+            }
+            l /= 2;
+            r /= 2;
+        }
+        return agg.apply(left, right);
+    }
+
+    @Override
+    public Aggregate aggregate() {
+        return agg;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(st);
+    }
+}
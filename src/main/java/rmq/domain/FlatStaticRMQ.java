@@ -0,0 +1,140 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Static range minimum query structure for given integer array
+ * <p>
+ * A sparse table like {@link StaticRMQ}, but the minima themselves are stored
+ * level by level in a single contiguous array and the base 2 logarithms are
+ * computed with integer operations only. Queries take constant time and two
+ * loads from the table, preprocessing takes O(n log n) time and space.
+ * </p>
+ */
+public class FlatStaticRMQ implements RMQ {
+    private final int size;
+    private final int[] offsets;
+    private final int[] table;
+
+    /**
+     * Static range minimum query structure for given integer array.
+     * <p>
+     * Level k of the table holds the minima of all ranges of length 2^k and
+     * starts at offsets[k].
+     * </p>
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public FlatStaticRMQ(int[] arr) {
+        this.size = arr.length;
+        offsets = SparseTables.offsets(size);
+        table = new int[SparseTables.length(size)];
+        System.arraycopy(arr, 0, table, 0, size);
+        for (int k = 1; k < offsets.length; k++) {
+            int prev = offsets[k - 1];
+            int cur = offsets[k];
+            int half = 1 << (k - 1);
+            int len = size - (1 << k) + 1;
+            for (int i = 0; i < len; i++) {
+                int a = table[prev + i];
+                int b = table[prev + i + half];
+                table[cur + i] = a < b ? a : b;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] table() {
+        return table;
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l = " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r = " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        int k = SparseTables.log2(r - l + 1);
+        int base = offsets[k];
+        int a = table[base + l];
+        int b = table[base + r - (1 << k) + 1];
+        return a < b ? a : b;
+    }
+
+    /**
+     * Compute the index of the minimum value in arr[l..r] in O(log n) time.
+     * If the minimum occurs more than once, the leftmost index is returned.
+     * <p>
+     * Only values are stored, so after finding the minimum the index is
+     * searched for by skipping ranges of decreasing powers of two lengths 
+     * that do not contain the minimum.
+     * </p>
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The leftmost index of the minimum value in arr[l..r].
+     */
+    @Override
+    public int queryIndex(int l, int r) {
+        int min = query(l, r);
+        int p = l;
+        for (int k = SparseTables.log2(r - l + 1); k >= 0; k--) {
+            if (p + (1 << k) - 1 <= r && table[offsets[k] + p] > min) {
+                p += 1 << k;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, int[] out) {
+        Ranges.checkAll(size, l, r, out);
+        for (int i = 0; i < l.length; i++) {
+            int k = SparseTables.log2(r[i] - l[i] + 1);
+            int base = offsets[k];
+            int a = table[base + l[i]];
+            int b = table[base + r[i] - (1 << k) + 1];
+            out[i] = a < b ? a : b;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < offsets.length; k++) {
+            sb.append("\n");
+            sb.append(Arrays.toString(Arrays.copyOfRange(table, offsets[k],
+                    offsets[k] + size - (1 << k) + 1)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package rmq.domain;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decorator that records queries in {@link RMQMetrics}. Created by
+ * {@link RMQMetrics#instrument(RMQ)}, which wraps updatable structures in
+ * {@link InstrumentedUpdatableRMQ} instead.
+ * <p>
+ * Reading the clock costs about as much as a query, so only about one in 8
+ * calls is timed. The calls are chosen with {@link ThreadLocalRandom}, so
+ * threads sharing a wrapper do not write to a shared counter.
+ * </p>
+ */
+class InstrumentedRMQ implements RMQ {
+    private static final int SAMPLE_MASK = 7;
+
+    private final RMQ rmq;
+    final RMQMetrics metrics;
+
+    InstrumentedRMQ(RMQ rmq, RMQMetrics metrics) {
+        this.rmq = rmq;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Whether to time the current call.
+     */
+    static boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    @Override
+    public int query(int l, int r) {
+        metrics.recordLength(r - l + 1);
+        if (!sample()) {
+            return rmq.query(l, r);
+        }
+        long t = System.nanoTime();
+        int res = rmq.query(l, r);
+        metrics.recordQueryLatency(System.nanoTime() - t, 1);
+        return res;
+    }
+
+    @Override
+    public int queryIndex(int l, int r) {
+        metrics.recordLength(r - l + 1);
+        if (!sample()) {
+            return rmq.queryIndex(l, r);
+        }
+        long t = System.nanoTime();
+        int res = rmq.queryIndex(l, r);
+        metrics.recordQueryLatency(System.nanoTime() - t, 1);
+        return res;
+    }
+
+    /**
+     * Answer the batch with the wrapped structure. Batches are always timed,
+     * and the latency of every query is recorded as the mean of the batch.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, int[] out) {
+        long t = System.nanoTime();
+        rmq.queryAll(l, r, out);
+        if (l.length > 0) {
+            metrics.recordQueryLatency(System.nanoTime() - t, l.length);
+            for (int i = 0; i < l.length; i++) {
+                metrics.recordLength(r[i] - l[i] + 1);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return rmq.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package rmq.domain;
+
+/**
+ * Decorator that records queries and updates in {@link RMQMetrics}. Created
+ * by {@link RMQMetrics#instrument(RMQ)} for updatable structures.
+ */
+final class InstrumentedUpdatableRMQ extends InstrumentedRMQ implements UpdatableRMQ {
+    private final UpdatableRMQ rmq;
+
+    InstrumentedUpdatableRMQ(UpdatableRMQ rmq, RMQMetrics metrics) {
+        super(rmq, metrics);
+        this.rmq = rmq;
+    }
+
+    @Override
+    public void update(int idx, int value) {
+        metrics.countUpdate();
+        if (!sample()) {
+            rmq.update(idx, value);
+            return;
+        }
+        long t = System.nanoTime();
+        rmq.update(idx, value);
+        metrics.recordUpdateLatency(System.nanoTime() - t);
+    }
+}
@@ -0,0 +1,362 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Lowest common ancestor queries for a rooted tree or forest
+ * <p>
+ * The lowest common ancestor of u and v is the shallowest node visited
+ * between the first visits of u and v in an Euler tour of the tree, so
+ * queries are range minimum queries over the depths of the tour. Those
+ * depths change by exactly one between neighbouring positions, so the tour
+ * is stored as one bit per step instead of one int per depth.
+ * </p>
+ * <p>
+ * The tour is split into blocks of 64 positions, one long of steps each. A
+ * sparse table over the block minima answers whole blocks, and the ends
+ * are scanned 8 steps at a time with a table of the lowest prefix of every
+ * byte of steps. Queries take constant time, and besides the tour itself
+ * (2n ints) and the first visit of every node (n ints) the structure needs
+ * O(n / 64 log n) space.
+ * </p>
+ * <p>
+ * The tour is built with an explicit stack, so arbitrarily deep trees
+ * work.
+ * </p>
+ */
+public class LCA {
+    private static final int BLOCK_BITS = 6;
+    private static final int BLOCK = 1 << BLOCK_BITS;
+    private static final byte[] CHUNK_MIN = new byte[256];
+    private static final byte[] CHUNK_POS = new byte[256];
+
+    static {
+        for (int x = 0; x < 256; x++) {
+            int depth = 0;
+            int min = 0;
+            for (int k = 0; k < 8; k++) {
+                depth += ((x >>> k) & 1) == 1 ? 1 : -1;
+                if (depth < min) {
+                    min = depth;
+                    CHUNK_POS[x] = (byte)(k + 1);
+                }
+            }
+            CHUNK_MIN[x] = (byte)min;
+        }
+    }
+
+    private final int size;
+    private final int virtualRoot;
+    private final int[] euler;
+    private final int[] first;
+    private final long[] steps;
+    private final int[] blockDepths;
+    private final int[] blockMins;
+    private final int[] blockMinDepths;
+    private final int[] offsets;
+    private final int[] table;
+
+    /**
+     * Lowest common ancestor structure for a forest given as parent array.
+     *
+     * @param parents The parent of every node, or -1 for the roots.
+     */
+    public LCA(int[] parents) {
+        this.size = parents.length;
+        int roots = 0;
+        int root = -1;
+        int[] counts = new int[size + 3];
+        for (int v = 0; v < size; v++) {
+            int p = parents[v];
+            if (p < -1 || p >= size || p == v) {
+                throw new IllegalArgumentException("parents[" + v + "] = " + p);
+            }
+            if (p == -1) {
+                roots++;
+                root = v;
+                p = size;
+            }
+            counts[p + 2]++;
+        }
+        if (size > 0 && roots == 0) {
+            throw new IllegalArgumentException("no root");
+        }
+        // Children of every node in CSR form, the roots being the children of
+        // the extra node size.
+        for (int v = 2; v < counts.length; v++) {
+            counts[v] += counts[v - 1];
+        }
+        int[] children = new int[size];
+        for (int v = 0; v < size; v++) {
+            int p = parents[v] == -1 ? size : parents[v];
+            children[counts[p + 1]++] = v;
+        }
+        virtualRoot = roots > 1 ? size : -1;
+        int nodes = roots > 1 ? size + 1 : size;
+        euler = new int[Math.max(0, 2 * nodes - 1)];
+        first = new int[nodes];
+        steps = new long[(euler.length + BLOCK - 1) >> BLOCK_BITS];
+        blockDepths = new int[steps.length];
+        if (size > 0) {
+            tour(counts, children, roots > 1 ? size : root, nodes);
+        }
+        blockMins = new int[steps.length];
+        blockMinDepths = new int[steps.length];
+        offsets = SparseTables.offsets(steps.length);
+        table = new int[SparseTables.length(steps.length)];
+        buildBlocks();
+    }
+
+    /**
+     * Lowest common ancestor structure for a tree given as adjacency lists in
+     * compressed sparse row form: the neighbours of node v are
+     * targets[offsets[v]..offsets[v + 1]). Each edge has to be listed from
+     * the parent to the child, and may also be listed from the child to the
+     * parent. An edge listed only from the child to the parent is not
+     * followed, so its child is not reachable from the root.
+     *
+     * @param offsets Start of the neighbours of each node, n + 1 values.
+     * @param targets Neighbours of all nodes.
+     * @param root The root of the tree.
+     * @throws IllegalArgumentException If the adjacency lists are not a
+     *     tree, or a node is not reachable from the root.
+     */
+    public LCA(int[] offsets, int[] targets, int root) {
+        if (offsets.length == 0 || offsets[0] != 0
+                || offsets[offsets.length - 1] > targets.length) {
+            throw new IllegalArgumentException("invalid offsets");
+        }
+        this.size = offsets.length - 1;
+        if (root < 0 || root >= size) {
+            throw new IndexOutOfBoundsException("root = " + root);
+        }
+        for (int v = 0; v < size; v++) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw new IllegalArgumentException("invalid offsets");
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (targets[e] < 0 || targets[e] >= size) {
+                    throw new IllegalArgumentException("targets[" + e + "] = " + targets[e]);
+                }
+            }
+        }
+        virtualRoot = -1;
+        euler = new int[2 * size - 1];
+        first = new int[size];
+        steps = new long[(euler.length + BLOCK - 1) >> BLOCK_BITS];
+        blockDepths = new int[steps.length];
+        tour(offsets, targets, root, size);
+        blockMins = new int[steps.length];
+        blockMinDepths = new int[steps.length];
+        this.offsets = SparseTables.offsets(steps.length);
+        table = new int[SparseTables.length(steps.length)];
+        buildBlocks();
+    }
+
+    /**
+     * Iterative depth first search writing the Euler tour, the first visit
+     * of every node and a bit for every step down.
+     */
+    private void tour(int[] adjOffsets, int[] targets, int root, int nodes) {
+        Arrays.fill(first, -1);
+        first[root] = 0;
+        euler[0] = root;
+        int[] parent = new int[nodes];
+        parent[root] = -1;
+        int[] cursor = new int[nodes];
+        cursor[root] = adjOffsets[root];
+        int[] stack = new int[nodes];
+        stack[0] = root;
+        int top = 1;
+        int pos = 1;
+        int depth = 0;
+        while (top > 0) {
+            int v = stack[top - 1];
+            int child = -1;
+            while (cursor[v] < adjOffsets[v + 1]) {
+                int c = targets[cursor[v]++];
+                if (c == parent[v]) {
+                    continue;
+                }
+                if (first[c] != -1) {
+                    throw new IllegalArgumentException("not a tree, " + c + " is reached twice");
+                }
+                child = c;
+                break;
+            }
+            if (child != -1) {
+                parent[child] = v;
+                cursor[child] = adjOffsets[child];
+                stack[top++] = child;
+                first[child] = pos;
+                steps[(pos - 1) >> BLOCK_BITS] |= 1L << (pos - 1);
+                depth++;
+            } else {
+                top--;
+                if (top == 0) {
+                    break;
+                }
+                child = stack[top - 1];
+                depth--;
+            }
+            if ((pos & (BLOCK - 1)) == 0) {
+                blockDepths[pos >> BLOCK_BITS] = depth;
+            }
+            euler[pos++] = child;
+        }
+        if (pos != euler.length) {
+            for (int v = 0; v < nodes; v++) {
+                if (first[v] == -1) {
+                    throw new IllegalArgumentException("node " + v + " is not reachable from "
+                            + "the root, edges need to be listed from parent to child");
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the minimum of every block and the sparse table over them.
+     */
+    private void buildBlocks() {
+        for (int b = 0; b < steps.length; b++) {
+            int start = b << BLOCK_BITS;
+            int min = inBlock(start, Math.min(start + BLOCK, euler.length) - 1);
+            blockMins[b] = min;
+            blockMinDepths[b] = depthAt(min);
+            table[b] = b;
+        }
+        for (int k = 1; k < offsets.length; k++) {
+            int prev = offsets[k - 1];
+            int half = 1 << (k - 1);
+            int level = offsets[k];
+            int count = steps.length - (1 << k) + 1;
+            for (int i = 0; i < count; i++) {
+                int a = table[prev + i];
+                int b = table[prev + i + half];
+                table[level + i] = blockMinDepths[b] < blockMinDepths[a] ? b : a;
+            }
+        }
+    }
+
+    /**
+     * Depth of the tour at position pos, relative to the first node.
+     */
+    private int depthAt(int pos) {
+        int off = pos & (BLOCK - 1);
+        long below = steps[pos >> BLOCK_BITS] & ((1L << off) - 1);
+        return blockDepths[pos >> BLOCK_BITS] + 2 * Long.bitCount(below) - off;
+    }
+
+    /**
+     * Position of the minimum depth in tour[l..r] where l and r are in the
+     * same block.
+     */
+    private int inBlock(int l, int r) {
+        long bits = steps[l >> BLOCK_BITS] >>> (l & (BLOCK - 1));
+        int count = r - l;
+        int depth = 0;
+        int min = 0;
+        int minOff = 0;
+        for (int off = 0; off < count; off += 8) {
+            int len = Math.min(8, count - off);
+            int chunk = (int)(bits >>> off) & 0xFF;
+            // Steps past r are taken as steps down, which never give a new
+            // minimum.
+            chunk |= 0xFF << len & 0xFF;
+            if (depth + CHUNK_MIN[chunk] < min) {
+                min = depth + CHUNK_MIN[chunk];
+                minOff = off + CHUNK_POS[chunk];
+            }
+            depth += 2 * Integer.bitCount(chunk & ((1 << len) - 1)) - len;
+        }
+        return l + minOff;
+    }
+
+    /**
+     * Number of nodes.
+     *
+     * @return The number of nodes in the forest.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Depth of a node, the roots having depth 0.
+     *
+     * @param v The node.
+     * @return The number of edges between v and its root.
+     */
+    public int depth(int v) {
+        if (v < 0 || v >= size) {
+            throw new IndexOutOfBoundsException("v = " + v);
+        }
+        return virtualRoot == -1 ? depthAt(first[v]) : depthAt(first[v]) - 1;
+    }
+
+    /**
+     * Compute the lowest common ancestor of two nodes in constant time.
+     *
+     * @param u The first node.
+     * @param v The second node.
+     * @return The deepest node that is an ancestor of both u and v, or -1 if
+     *     they are in different trees.
+     */
+    public int lca(int u, int v) {
+        if (u < 0 || u >= size) {
+            throw new IndexOutOfBoundsException("u = " + u);
+        }
+        if (v < 0 || v >= size) {
+            throw new IndexOutOfBoundsException("v = " + v);
+        }
+        int a = first[u];
+        int b = first[v];
+        int node = euler[a < b ? argmin(a, b) : argmin(b, a)];
+        return node == virtualRoot ? -1 : node;
+    }
+
+    /**
+     * Compute the lowest common ancestors of the pairs (u[i], v[i]) into
+     * out[i].
+     *
+     * @param u The first node of every pair.
+     * @param v The second node of every pair.
+     * @param out Array for the results, at least as long as u.
+     */
+    public void lcaAll(int[] u, int[] v, int[] out) {
+        Ranges.checkLengths(u, v, out);
+        for (int i = 0; i < u.length; i++) {
+            out[i] = lca(u[i], v[i]);
+        }
+    }
+
+    /**
+     * Position of the minimum depth in tour[l..r].
+     */
+    private int argmin(int l, int r) {
+        int bl = l >> BLOCK_BITS;
+        int br = r >> BLOCK_BITS;
+        if (bl == br) {
+            return inBlock(l, r);
+        }
+        int res = inBlock(l, (bl << BLOCK_BITS) + BLOCK - 1);
+        int resDepth = depthAt(res);
+        if (bl + 1 < br) {
+            int k = SparseTables.log2(br - bl - 1);
+            int a = table[offsets[k] + bl + 1];
+            int b = table[offsets[k] + br - (1 << k)];
+            int block = blockMinDepths[b] < blockMinDepths[a] ? b : a;
+            if (blockMinDepths[block] < resDepth) {
+                res = blockMins[block];
+                resDepth = blockMinDepths[block];
+            }
+        }
+        int right = inBlock(br << BLOCK_BITS, r);
+        return depthAt(right) < resDepth ? right : res;
+    }
+
+    @Override
+    public String toString() {
+        return "LCA[size = " + size + ", tour = " + euler.length + "]";
+    }
+}
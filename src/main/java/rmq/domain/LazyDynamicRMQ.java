@@ -0,0 +1,184 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic range minimum query structure with range updates
+ * <p>
+ * A segment tree with the same layout as {@link DynamicRMQ}, extended with
+ * lazy tags so that whole ranges can be assigned or shifted in O(log n) time.
+ * Queries take O(log n) time and the structure uses O(n) space.
+ * </p>
+ * <p>
+ * Each internal node may carry a pending assignment and a pending addition
+ * that have already been applied to the node itself but not yet to its
+ * children. Tags are pushed down to the children only when an operation
+ * needs to descend below the node. Values use int arithmetic, so additions
+ * overflow the same way as in Java.
+ * </p>
+ */
+public class LazyDynamicRMQ implements UpdatableRMQ {
+    private final int size;
+    private final int half;
+    private final int[] st;
+    private final int[] add;
+    private final int[] assign;
+    private final boolean[] assigned;
+
+    /**
+     * Dynamic range minimum query structure with range updates for given
+     * integer array.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public LazyDynamicRMQ(int[] arr) {
+        this.size = arr.length;
+        this.half = Integer.highestOneBit(Math.max(1, 2 * arr.length - 1));
+        st = new int[half * 2];
+        Arrays.fill(st, Integer.MAX_VALUE);
+        System.arraycopy(arr, 0, st, half, arr.length);
+        for (int i = half - 1; i > 0; i--) {
+            st[i] = Math.min(st[i * 2], st[i * 2 + 1]);
+        }
+        add = new int[half];
+        assign = new int[half];
+        assigned = new boolean[half];
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    @Override
+    public void update(int idx, int value) {
+        rangeAssign(idx, idx, value);
+    }
+
+    /**
+     * Set every value in arr[l..r] to value in O(log n) time.
+     *
+     * @param l Left limit of the range (inclusive).
+     * @param r Right limit of the range (inclusive).
+     * @param value Value to set.
+     */
+    public void rangeAssign(int l, int r, int value) {
+        Ranges.check(size, l, r);
+        assign(1, 0, half - 1, l, r, value);
+    }
+
+    /**
+     * Add delta to every value in arr[l..r] in O(log n) time.
+     *
+     * @param l Left limit of the range (inclusive).
+     * @param r Right limit of the range (inclusive).
+     * @param delta Value to add.
+     */
+    public void rangeAdd(int l, int r, int delta) {
+        Ranges.check(size, l, r);
+        add(1, 0, half - 1, l, r, delta);
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        Ranges.check(size, l, r);
+        return queryNode(1, 0, half - 1, l, r);
+    }
+
+    private void assign(int node, int lo, int hi, int l, int r, int value) {
+        if (l <= lo && hi <= r) {
+            applyAssign(node, value);
+            return;
+        }
+        push(node);
+        int mid = (lo + hi) >>> 1;
+        if (l <= mid) {
+            assign(node * 2, lo, mid, l, r, value);
+        }
+        if (r > mid) {
+            assign(node * 2 + 1, mid + 1, hi, l, r, value);
+        }
+        st[node] = Math.min(st[node * 2], st[node * 2 + 1]);
+    }
+
+    private void add(int node, int lo, int hi, int l, int r, int delta) {
+        if (l <= lo && hi <= r) {
+            applyAdd(node, delta);
+            return;
+        }
+        push(node);
+        int mid = (lo + hi) >>> 1;
+        if (l <= mid) {
+            add(node * 2, lo, mid, l, r, delta);
+        }
+        if (r > mid) {
+            add(node * 2 + 1, mid + 1, hi, l, r, delta);
+        }
+        st[node] = Math.min(st[node * 2], st[node * 2 + 1]);
+    }
+
+    private int queryNode(int node, int lo, int hi, int l, int r) {
+        if (l <= lo && hi <= r) {
+            return st[node];
+        }
+        push(node);
+        int mid = (lo + hi) >>> 1;
+        int res = Integer.MAX_VALUE;
+        if (l <= mid) {
+            res = queryNode(node * 2, lo, mid, l, r);
+        }
+        if (r > mid) {
+            res = Math.min(res, queryNode(node * 2 + 1, mid + 1, hi, l, r));
+        }
+        return res;
+    }
+
+    private void applyAssign(int node, int value) {
+        st[node] = value;
+        if (node < half) {
+            assign[node] = value;
+            assigned[node] = true;
+            add[node] = 0;
+        }
+    }
+
+    private void applyAdd(int node, int delta) {
+        st[node] += delta;
+        if (node < half) {
+            if (assigned[node]) {
+                assign[node] += delta;
+            } else {
+                add[node] += delta;
+            }
+        }
+    }
+
+    /**
+     * Move the pending tags of node to its children.
+     */
+    private void push(int node) {
+        if (assigned[node]) {
+            applyAssign(node * 2, assign[node]);
+            applyAssign(node * 2 + 1, assign[node]);
+            assigned[node] = false;
+        }
+        if (add[node] != 0) {
+            applyAdd(node * 2, add[node]);
+            applyAdd(node * 2 + 1, add[node]);
+            add[node] = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(st);
+    }
+}
@@ -0,0 +1,143 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Static range minimum query structure for given integer array
+ * <p>
+ * A data structure that supports range minimum queries for a given array in
+ * constant time and O(n) space.
+ * </p>
+ * <p>
+ * The array is split into blocks of 32 elements. Ranges spanning whole blocks
+ * are answered by a {@link FlatStaticRMQ} over the block minima, which only
+ * has n / 32 elements. Inside a block each position stores a 32 bit mask of
+ * the monotonic stack of the block prefix ending at that position, so the
+ * minimum of a range inside a block is found with a single bit operation.
+ * </p>
+ */
+public class LinearRMQ implements RMQ {
+    private static final int BLOCK_BITS = 5;
+    private static final int BLOCK = 1 << BLOCK_BITS;
+
+    private final int[] arr;
+    private final int[] masks;
+    private final FlatStaticRMQ blocks;
+
+    /**
+     * Static range minimum query structure for given integer array.
+     * <p>
+     * A data structure that supports range minimum queries for a given array in
+     * constant time and O(n) space.
+     * </p>
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public LinearRMQ(int[] arr) {
+        this.arr = arr.clone();
+        masks = new int[arr.length];
+        int[] blockMins = new int[(arr.length + BLOCK - 1) >> BLOCK_BITS];
+        for (int b = 0; b < blockMins.length; b++) {
+            int start = b << BLOCK_BITS;
+            int end = Math.min(start + BLOCK, arr.length);
+            int stack = 0;
+            for (int i = start; i < end; i++) {
+                // Pop larger values. Equal values stay so that the lowest
+                // remaining bit is always the leftmost minimum.
+                while (stack != 0) {
+                    int top = 31 - Integer.numberOfLeadingZeros(stack);
+                    if (arr[start + top] <= arr[i]) {
+                        break;
+                    }
+                    stack ^= 1 << top;
+                }
+                stack |= 1 << (i - start);
+                masks[i] = stack;
+            }
+            blockMins[b] = arr[start + Integer.numberOfTrailingZeros(stack)];
+        }
+        blocks = new FlatStaticRMQ(blockMins);
+    }
+
+    /**
+     * Minimum of arr[l..r] where l and r are in the same block.
+     */
+    private int inBlock(int l, int r) {
+        return arr[inBlockIndex(l, r)];
+    }
+
+    /**
+     * Leftmost index of the minimum of arr[l..r] where l and r are in the 
+     * same block.
+     */
+    private int inBlockIndex(int l, int r) {
+        int m = masks[r] & (-1 << (l & (BLOCK - 1)));
+        return (r & -BLOCK) + Integer.numberOfTrailingZeros(m);
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l = " + l);
+        }
+        if (r >= arr.length) {
+            throw new IndexOutOfBoundsException("r = " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        int bl = l >> BLOCK_BITS;
+        int br = r >> BLOCK_BITS;
+        if (bl == br) {
+            return inBlock(l, r);
+        }
+        int res = Math.min(inBlock(l, (bl << BLOCK_BITS) + BLOCK - 1),
+                inBlock(br << BLOCK_BITS, r));
+        if (bl + 1 < br) {
+            res = Math.min(res, blocks.query(bl + 1, br - 1));
+        }
+        return res;
+    }
+
+    /**
+     * Compute the index of the minimum value in arr[l..r]. If the minimum
+     * occurs more than once, the leftmost index is returned.
+     * <p>
+     * Ranges inside the partial blocks at the ends take constant time, the
+     * whole blocks between them O(log n) time.
+     * </p>
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The leftmost index of the minimum value in arr[l..r].
+     */
+    @Override
+    public int queryIndex(int l, int r) {
+        Ranges.check(arr.length, l, r);
+        int bl = l >> BLOCK_BITS;
+        int br = r >> BLOCK_BITS;
+        if (bl == br) {
+            return inBlockIndex(l, r);
+        }
+        int res = inBlockIndex(l, (bl << BLOCK_BITS) + BLOCK - 1);
+        if (bl + 1 < br) {
+            int b = blocks.queryIndex(bl + 1, br - 1);
+            int mid = inBlockIndex(b << BLOCK_BITS, (b << BLOCK_BITS) + BLOCK - 1);
+            res = arr[mid] < arr[res] ? mid : res;
+        }
+        int right = inBlockIndex(br << BLOCK_BITS, r);
+        return arr[right] < arr[res] ? right : res;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(arr) + blocks.toString();
+    }
+}
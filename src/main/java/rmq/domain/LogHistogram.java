@@ -0,0 +1,107 @@
+package rmq.domain;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative longs with logarithmic buckets
+ * <p>
+ * Values below 16 get a bucket each, and every power of two above that is
+ * split into 16 buckets, so recorded values are kept with a relative error
+ * of at most 1/16 like in HdrHistogram. The buckets are {@link LongAdder}s,
+ * which spread concurrent increments over per thread cells, so recording
+ * does not allocate or contend.
+ * </p>
+ */
+final class LogHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LogHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Bucket of a value.
+     */
+    static int bucket(long value) {
+        if (value < SUB) {
+            return (int)Math.max(0, value);
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int)(value >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    /**
+     * Largest value in a bucket.
+     */
+    static long highest(int bucket) {
+        if (bucket < SUB) {
+            return bucket;
+        }
+        int exp = bucket / SUB + SUB_BITS - 1;
+        long low = (long)(SUB + bucket % SUB) << (exp - SUB_BITS);
+        return low + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Record count occurrences of value.
+     */
+    void record(long value, long count) {
+        counts[bucket(value)].add(count);
+        if (value > max.get()) {
+            max.accumulate(value);
+        }
+    }
+
+    long count() {
+        long n = 0;
+        for (LongAdder count : counts) {
+            n += count.sum();
+        }
+        return n;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Upper bound of the bucket containing the given percentile of the
+     * recorded values, or 0 if nothing was recorded.
+     */
+    long percentile(double p) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(p / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highest(i), max());
+            }
+        }
+        return max();
+    }
+
+    void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+        max.reset();
+    }
+}
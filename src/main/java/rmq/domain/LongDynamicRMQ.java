@@ -0,0 +1,107 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic range minimum query structure for given long array
+ * <p>
+ * The segment tree of {@link DynamicRMQ} for long values. Supports updates
+ * and range minimum queries in O(log n) time and O(n) space without boxing.
+ * </p>
+ */
+public class LongDynamicRMQ implements LongRMQ {
+    private final int size;
+    private final int half;
+    private final long[] st;
+
+    /**
+     * Dynamic range minimum query structure for given long array.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public LongDynamicRMQ(long[] arr) {
+        this.size = arr.length;
+        this.half = Integer.highestOneBit(Math.max(1, 2 * arr.length - 1));
+        st = new long[half * 2];
+        Arrays.fill(st, Long.MAX_VALUE);
+        System.arraycopy(arr, 0, st, half, arr.length);
+        for (int i = half - 1; i > 0; i--) {
+            st[i] = Math.min(st[i * 2], st[i * 2 + 1]);
+        }
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    public void update(int idx, long value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        idx += half;
+        st[idx] = value;
+        for (idx /= 2; idx > 0; idx /= 2) {
+            st[idx] = Math.min(st[idx * 2], st[idx * 2 + 1]);
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public long query(int l, int r) {
+        Ranges.check(size, l, r);
+        return rangeMin(l, r);
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, long[] out) {
+        Ranges.checkAll(size, l, r, out.length);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = rangeMin(l[i], r[i]);
+        }
+    }
+
+    /**
+     * Minimum of arr[l..r] for a valid range.
+     */
+    private long rangeMin(int l, int r) {
+        l += half;
+        r += half;
+        long res = Long.MAX_VALUE;
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                res = st[l] < res ? st[l] : res;
+                l++;
+            }
+            if ((r & 1) == 0) {
+                res = st[r] < res ? st[r] : res;
+                r--;
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(st);
+    }
+}
@@ -0,0 +1,86 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Static range minimum query structure for given long array
+ * <p>
+ * The sparse table of {@link FlatStaticRMQ} for long values. Supports range
+ * minimum queries in constant time and O(n log n) space without boxing.
+ * </p>
+ */
+public class LongStaticRMQ implements LongRMQ {
+    private final int size;
+    private final int[] offsets;
+    private final long[] table;
+
+    /**
+     * Static range minimum query structure for given long array.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public LongStaticRMQ(long[] arr) {
+        this.size = arr.length;
+        offsets = SparseTables.offsets(size);
+        table = new long[SparseTables.length(size)];
+        System.arraycopy(arr, 0, table, 0, size);
+        for (int k = 1; k < offsets.length; k++) {
+            int prev = offsets[k - 1];
+            int cur = offsets[k];
+            int half = 1 << (k - 1);
+            int len = size - (1 << k) + 1;
+            for (int i = 0; i < len; i++) {
+                long a = table[prev + i];
+                long b = table[prev + i + half];
+                table[cur + i] = a < b ? a : b;
+            }
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public long query(int l, int r) {
+        Ranges.check(size, l, r);
+        return rangeMin(l, r);
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, long[] out) {
+        Ranges.checkAll(size, l, r, out.length);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = rangeMin(l[i], r[i]);
+        }
+    }
+
+    /**
+     * Minimum of arr[l..r] for a valid range.
+     */
+    private long rangeMin(int l, int r) {
+        int k = SparseTables.log2(r - l + 1);
+        int base = offsets[k];
+        long a = table[base + l];
+        long b = table[base + r - (1 << k) + 1];
+        return a < b ? a : b;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(table);
+    }
+}
@@ -0,0 +1,222 @@
+package rmq.domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Static range minimum query structure read from a memory mapped file
+ * <p>
+ * {@link #write(FlatStaticRMQ, Path)} stores a built {@link FlatStaticRMQ}
+ * in a binary file and {@link #open(Path)} maps the file back read only.
+ * Queries are answered directly from the mapped file, so opening does not
+ * rebuild anything or allocate the table on the heap, and the operating
+ * system can share the pages between processes.
+ * </p>
+ * <p>
+ * The file is little endian and consists of a header of the magic number,
+ * the format version, the array size, the number of levels and a CRC32 of
+ * the rest of the file, followed by the level offsets and the table.
+ * </p>
+ * <p>
+ * The table is mapped in chunks of 1 GB, so files larger than the 2 GB limit
+ * of a single mapping can be opened, up to the largest table a
+ * {@link FlatStaticRMQ} can hold.
+ * </p>
+ */
+public class MappedStaticRMQ implements RMQ {
+    static final int MAGIC = 0x46514d52; // "RMQF" in little endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5 * 4;
+    static final int CHUNK_BITS = 28;
+    private static final long CRC_CHUNK = 1L << 30;
+
+    private final int size;
+    private final int[] offsets;
+    private final IntBuffer[] chunks;
+    private final int chunkBits;
+    private final int chunkMask;
+
+    private MappedStaticRMQ(int size, int[] offsets, IntBuffer[] chunks, int chunkBits) {
+        this.size = size;
+        this.offsets = offsets;
+        this.chunks = chunks;
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1 << chunkBits) - 1;
+    }
+
+    /**
+     * Write rmq to file, replacing any existing file.
+     *
+     * @param rmq The structure to write.
+     * @param file The file to write to.
+     * @throws IOException If writing fails.
+     */
+    public static void write(FlatStaticRMQ rmq, Path file) throws IOException {
+        int[] offsets = rmq.offsets();
+        int[] table = rmq.table();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            ch.position(HEADER_BYTES);
+            writeInts(ch, buf, crc, offsets);
+            writeInts(ch, buf, crc, table);
+            buf.clear();
+            buf.putInt(MAGIC).putInt(VERSION).putInt(rmq.size()).putInt(offsets.length)
+                    .putInt((int)crc.getValue());
+            buf.flip();
+            ch.position(0);
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+        }
+    }
+
+    private static void writeInts(FileChannel ch, ByteBuffer buf, CRC32 crc, int[] values)
+            throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            buf.clear();
+            int end = Math.min(values.length, i + buf.capacity() / 4);
+            buf.asIntBuffer().put(values, i, end - i);
+            buf.limit((end - i) * 4);
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Map a file written by {@link #write(FlatStaticRMQ, Path)} and verify its
+     * checksum.
+     *
+     * @param file The file to read.
+     * @return The mapped structure.
+     * @throws IOException If reading fails or the file is not valid.
+     */
+    public static MappedStaticRMQ open(Path file) throws IOException {
+        return open(file, true);
+    }
+
+    /**
+     * Map a file written by {@link #write(FlatStaticRMQ, Path)}.
+     * <p>
+     * Verifying the checksum reads the whole file. Skipping it makes opening
+     * take constant time, and only the pages touched by queries are read.
+     * </p>
+     *
+     * @param file The file to read.
+     * @param verify Whether to verify the checksum.
+     * @return The mapped structure.
+     * @throws IOException If reading fails or the file is not valid.
+     */
+    public static MappedStaticRMQ open(Path file, boolean verify) throws IOException {
+        return open(file, verify, CHUNK_BITS);
+    }
+
+    /**
+     * Map a file with the table split in chunks of 2^chunkBits values.
+     */
+    static MappedStaticRMQ open(Path file, boolean verify, int chunkBits) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = ch.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("not an rmq file: " + file);
+            }
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("not an rmq file: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("unsupported version " + header.getInt(4) + ": " + file);
+            }
+            int size = header.getInt(8);
+            int levels = header.getInt(12);
+            int checksum = header.getInt(16);
+            if (size < 0 || levels != (size == 0 ? 0 : SparseTables.log2(size) + 1)) {
+                throw new IOException("corrupted header: " + file);
+            }
+            long tableLength = SparseTables.uncheckedLength(size);
+            if (tableLength > Integer.MAX_VALUE) {
+                throw new IOException("file too large, " + tableLength
+                        + " table values do not fit in an int index: " + file);
+            }
+            long tableStart = HEADER_BYTES + 4L * levels;
+            if (length != tableStart + 4 * tableLength) {
+                throw new IOException("wrong file length: " + file);
+            }
+            if (verify) {
+                CRC32 crc = new CRC32();
+                for (long start = HEADER_BYTES; start < length; start += CRC_CHUNK) {
+                    crc.update(ch.map(FileChannel.MapMode.READ_ONLY, start,
+                            Math.min(CRC_CHUNK, length - start)));
+                }
+                if ((int)crc.getValue() != checksum) {
+                    throw new IOException("checksum mismatch: " + file);
+                }
+            }
+            int[] offsets = new int[levels];
+            ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 4L * levels)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(offsets);
+            long expected = 0;
+            for (int k = 0; k < levels; k++) {
+                if (offsets[k] != expected) {
+                    throw new IOException("corrupted level offsets: " + file);
+                }
+                expected += size - (1L << k) + 1;
+            }
+            IntBuffer[] chunks = new IntBuffer[(int)((tableLength + (1L << chunkBits) - 1)
+                    >> chunkBits)];
+            for (int c = 0; c < chunks.length; c++) {
+                long from = (long)c << chunkBits;
+                long count = Math.min(1L << chunkBits, tableLength - from);
+                chunks[c] = ch.map(FileChannel.MapMode.READ_ONLY, tableStart + 4 * from,
+                        4 * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            }
+            return new MappedStaticRMQ(size, offsets, chunks, chunkBits);
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l = " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r = " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        int k = SparseTables.log2(r - l + 1);
+        int base = offsets[k];
+        int a = get(base + l);
+        int b = get(base + r - (1 << k) + 1);
+        return a < b ? a : b;
+    }
+
+    private int get(int i) {
+        return chunks[i >>> chunkBits].get(i & chunkMask);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedStaticRMQ[size = " + size + "]";
+    }
+}
@@ -0,0 +1,18 @@
+package rmq.domain;
+
+/**
+ * Minimum queries over rectangles of an int matrix.
+ */
+public interface MatrixRMQ {
+    /**
+     * Compute the minimum value in the rectangle of rows r1..r2 and columns
+     * c1..c2 (all inclusive).
+     *
+     * @param r1 First row of the rectangle.
+     * @param c1 First column of the rectangle.
+     * @param r2 Last row of the rectangle.
+     * @param c2 Last column of the rectangle.
+     * @return The minimum value in the rectangle.
+     */
+    int query(int r1, int c1, int r2, int c2);
+}
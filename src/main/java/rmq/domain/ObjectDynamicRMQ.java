@@ -0,0 +1,135 @@
+package rmq.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Dynamic range minimum query structure for given object array
+ * <p>
+ * The segment tree of {@link DynamicRMQ} for any element type, ordered by a
+ * comparator. Supports updates and range minimum queries in O(log n) time and
+ * O(n) space. When several elements compare equal, any of them may be
+ * returned. Empty nodes are null and greater than every element.
+ * </p>
+ *
+ * @param <T> Type of the elements.
+ */
+public class ObjectDynamicRMQ<T> implements ObjectRMQ<T> {
+    private final int size;
+    private final int half;
+    private final Object[] st;
+    private final Comparator<? super T> cmp;
+
+    /**
+     * Dynamic range minimum query structure for given object array.
+     *
+     * @param arr The input array to compute the range minima for. May not
+     *     contain nulls.
+     * @param cmp The order of the elements.
+     */
+    public ObjectDynamicRMQ(T[] arr, Comparator<? super T> cmp) {
+        this.size = arr.length;
+        this.cmp = cmp;
+        this.half = Integer.highestOneBit(Math.max(1, 2 * arr.length - 1));
+        st = new Object[half * 2];
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i] == null) {
+                throw new NullPointerException("arr[" + i + "]");
+            }
+            st[half + i] = arr[i];
+        }
+        for (int i = half - 1; i > 0; i--) {
+            st[i] = min(st[i * 2], st[i * 2 + 1]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object min(Object a, Object b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return cmp.compare((T)a, (T)b) <= 0 ? a : b;
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set. May not be null.
+     */
+    public void update(int idx, T value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        idx += half;
+        st[idx] = value;
+        for (idx /= 2; idx > 0; idx /= 2) {
+            st[idx] = min(st[idx * 2], st[idx * 2 + 1]);
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public T query(int l, int r) {
+        Ranges.check(size, l, r);
+        return rangeMin(l, r);
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, T[] out) {
+        Ranges.checkAll(size, l, r, out.length);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = rangeMin(l[i], r[i]);
+        }
+    }
+
+    /**
+     * Minimum of arr[l..r] for a valid range.
+     */
+    @SuppressWarnings("unchecked")
+    private T rangeMin(int l, int r) {
+        l += half;
+        r += half;
+        Object res = null;
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                res = min(res, st[l]);
+                l++;
+            }
+            if ((r & 1) == 0) {
+                res = min(st[r], res);
+                r--;
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return (T)res;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(st);
+    }
+}
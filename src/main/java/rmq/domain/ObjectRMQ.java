@@ -0,0 +1,35 @@
+package rmq.domain;
+
+/**
+ * Range minimum queries over an array of objects ordered by a comparator.
+ *
+ * @param <T> Type of the elements.
+ */
+public interface ObjectRMQ<T> {
+    /**
+     * Compute the minimum value in arr[l..r].
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    T query(int l, int r);
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * out[i] is set to the minimum value in arr[l[i]..r[i]]. Implementations
+     * may validate the whole batch before answering any queries.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    default void queryAll(int[] l, int[] r, T[] out) {
+        Ranges.checkLengths(l, r, out.length);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = query(l[i], r[i]);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package rmq.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Static range minimum query structure for given object array
+ * <p>
+ * The sparse table of {@link FlatStaticRMQ} for any element type, ordered by
+ * a comparator. Supports range minimum queries in constant time and
+ * O(n log n) space. When several elements compare equal, any of them may be
+ * returned.
+ * </p>
+ *
+ * @param <T> Type of the elements.
+ */
+public class ObjectStaticRMQ<T> implements ObjectRMQ<T> {
+    private final int size;
+    private final int[] offsets;
+    private final Object[] table;
+    private final Comparator<? super T> cmp;
+
+    /**
+     * Static range minimum query structure for given object array.
+     *
+     * @param arr The input array to compute the range minima for.
+     * @param cmp The order of the elements.
+     */
+    public ObjectStaticRMQ(T[] arr, Comparator<? super T> cmp) {
+        this.size = arr.length;
+        this.cmp = cmp;
+        offsets = SparseTables.offsets(size);
+        table = new Object[SparseTables.length(size)];
+        System.arraycopy(arr, 0, table, 0, size);
+        for (int k = 1; k < offsets.length; k++) {
+            int prev = offsets[k - 1];
+            int cur = offsets[k];
+            int half = 1 << (k - 1);
+            int len = size - (1 << k) + 1;
+            for (int i = 0; i < len; i++) {
+                table[cur + i] = min(table[prev + i], table[prev + i + half]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object min(Object a, Object b) {
+        return cmp.compare((T)a, (T)b) <= 0 ? a : b;
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in constant time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public T query(int l, int r) {
+        Ranges.check(size, l, r);
+        return rangeMin(l, r);
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, T[] out) {
+        Ranges.checkAll(size, l, r, out.length);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = rangeMin(l[i], r[i]);
+        }
+    }
+
+    /**
+     * Minimum of arr[l..r] for a valid range.
+     */
+    @SuppressWarnings("unchecked")
+    private T rangeMin(int l, int r) {
+        int k = SparseTables.log2(r - l + 1);
+        int base = offsets[k];
+        return (T)min(table[base + l], table[base + r - (1 << k) + 1]);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(table);
+    }
+}
@@ -0,0 +1,168 @@
+package rmq.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Dynamic range minimum query structure stored outside the heap
+ * <p>
+ * The same segment tree as {@link DynamicRMQ}, but the nodes are stored in
+ * direct byte buffers of at most 2^28 ints each, and indices are longs. This
+ * keeps very large trees away from the garbage collector and supports arrays
+ * with more than 2^31 elements. Direct memory is limited by the
+ * {@code -XX:MaxDirectMemorySize} JVM option and released when the structure
+ * is garbage collected.
+ * </p>
+ */
+public class OffHeapDynamicRMQ implements UpdatableRMQ {
+    private static final int CHUNK_BITS = 28;
+
+    private final long size;
+    private final long half;
+    private final int chunkBits;
+    private final int chunkMask;
+    private final IntBuffer[] chunks;
+
+    /**
+     * Off heap dynamic range minimum query structure for given integer array.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public OffHeapDynamicRMQ(int[] arr) {
+        this(arr.length, i -> arr[(int)i]);
+    }
+
+    /**
+     * Off heap dynamic range minimum query structure for an array of the
+     * given size. Built in O(n) time.
+     *
+     * @param size Number of elements.
+     * @param values Function giving the initial value of each element.
+     */
+    public OffHeapDynamicRMQ(long size, LongToIntFunction values) {
+        this(size, values, CHUNK_BITS);
+    }
+
+    OffHeapDynamicRMQ(long size, LongToIntFunction values, int chunkBits) {
+        if (size < 0 || size > 1L << 40) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        this.size = size;
+        this.half = Long.highestOneBit(Math.max(1, 2 * size - 1));
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1 << chunkBits) - 1;
+        long nodes = half * 2;
+        chunks = new IntBuffer[(int)((nodes + chunkMask) >>> chunkBits)];
+        for (int c = 0; c < chunks.length; c++) {
+            int len = (int)Math.min(1L << chunkBits, nodes - ((long)c << chunkBits));
+            chunks[c] = ByteBuffer.allocateDirect(len * 4).order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        for (long i = 0; i < half; i++) {
+            set(half + i, i < size ? values.applyAsInt(i) : Integer.MAX_VALUE);
+        }
+        set(0, Integer.MAX_VALUE);
+        for (long i = half - 1; i > 0; i--) {
+            set(i, Math.min(get(i * 2), get(i * 2 + 1)));
+        }
+    }
+
+    private int get(long node) {
+        return chunks[(int)(node >>> chunkBits)].get((int)node & chunkMask);
+    }
+
+    private void set(long node, int value) {
+        chunks[(int)(node >>> chunkBits)].put((int)node & chunkMask, value);
+    }
+
+    /**
+     * Number of elements in the array.
+     *
+     * @return The size of the array.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    public void update(long idx, int value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        idx += half;
+        set(idx, value);
+        for (idx /= 2; idx > 0; idx /= 2) {
+            set(idx, Math.min(get(idx * 2), get(idx * 2 + 1)));
+        }
+    }
+
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    @Override
+    public void update(int idx, int value) {
+        update((long)idx, value);
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    public int query(long l, long r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l: " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r: " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+        l += half;
+        r += half;
+        int res = Integer.MAX_VALUE;
+        while (l <= r) {
+            if ((l & 1) == 1) {
+                int v = get(l);
+                res = v < res ? v : res;
+                l++;
+            }
+            if ((r & 1) == 0) {
+                int v = get(r);
+                res = v < res ? v : res;
+                r--;
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return res;
+    }
+
+    @Override
+    public int query(int l, int r) {
+        return query((long)l, (long)r);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (long i = 0; i < half * 2 && i < 1024; i++) {
+            sb.append(i == 0 ? "" : ", ");
+            sb.append(get(i));
+        }
+        return sb.append(half * 2 > 1024 ? ", ...]" : "]").toString();
+    }
+}
@@ -0,0 +1,71 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Range minima of a batch of queries that are all known in advance
+ * <p>
+ * Answers the whole batch without building a query structure. The queries
+ * are bucketed by their right limit, and the array is swept from left to
+ * right while keeping a monotonic stack of the positions that are still the
+ * minimum of some range ending at the current position. When a position is
+ * popped it is joined to the position that popped it in a disjoint set
+ * forest, so the root of the set of l is always the position of the minimum
+ * of arr[l..r]. With path compression the batch takes O((n + q) log n) time
+ * in the worst case and close to O((n + q) alpha(n)) in practice, and O(n + q)
+ * memory.
+ * </p>
+ */
+public final class OfflineRMQ {
+    private OfflineRMQ() {
+    }
+
+    /**
+     * Compute the range minima for a batch of queries, in the same format as
+     * {@link RMQ#queryAll(int[], int[], int[])}.
+     * <p>
+     * The whole batch is validated before any queries are answered.
+     * </p>
+     *
+     * @param arr The input array.
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    public static void queryAll(int[] arr, int[] l, int[] r, int[] out) {
+        Ranges.checkAll(arr.length, l, r, out);
+        int size = arr.length;
+        // Queries with right limit i form a linked list starting at head[i].
+        int[] head = new int[size];
+        int[] next = new int[l.length];
+        Arrays.fill(head, -1);
+        for (int q = 0; q < l.length; q++) {
+            next[q] = head[r[q]];
+            head[r[q]] = q;
+        }
+        int[] parent = new int[size];
+        int[] stack = new int[size];
+        int top = 0;
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+            while (top > 0 && arr[stack[top - 1]] > arr[i]) {
+                parent[stack[--top]] = i;
+            }
+            stack[top++] = i;
+            for (int q = head[i]; q != -1; q = next[q]) {
+                out[q] = arr[find(parent, l[q])];
+            }
+        }
+    }
+
+    /**
+     * Root of the set of x, halving the path on the way.
+     */
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
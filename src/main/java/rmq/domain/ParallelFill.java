@@ -0,0 +1,59 @@
+package rmq.domain;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the independent cells of one table level between fork/join workers.
+ */
+final class ParallelFill {
+    /**
+     * Ranges with fewer cells than this are filled by a single worker.
+     */
+    static final int CUTOFF = 1 << 13;
+
+    /**
+     * Fills the cells in [from, to) of a level.
+     */
+    interface Body {
+        void fill(int from, int to);
+    }
+
+    private ParallelFill() {
+    }
+
+    /**
+     * Fill the cells in [from, to). Runs in the calling thread when pool is
+     * null or the range is below {@link #CUTOFF}.
+     */
+    static void fill(ForkJoinPool pool, int from, int to, Body body) {
+        if (pool == null || to - from < CUTOFF) {
+            body.fill(from, to);
+        } else {
+            pool.invoke(new Task(from, to, body));
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final transient Body body;
+
+        Task(int from, int to, Body body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < CUTOFF) {
+                body.fill(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(from, mid, body), new Task(mid, to, body));
+        }
+    }
+}
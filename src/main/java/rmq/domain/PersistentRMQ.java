@@ -0,0 +1,266 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Range minimum query structure that keeps every version of the array
+ * <p>
+ * A segment tree like {@link DynamicRMQ}, but updates copy the path from the
+ * root to the changed leaf instead of modifying it, so every earlier version
+ * stays queryable. An update creates O(log n) nodes and shares the rest of
+ * the tree with the version it was made from, and queries of any version
+ * take O(log n) time.
+ * </p>
+ * <p>
+ * The nodes are stored in int arrays instead of node objects, so a version
+ * costs three ints per copied node and nothing for the garbage collector to
+ * trace. {@link #release(int)} drops all versions older than the given one
+ * at once and compacts the arrays to the nodes still in use.
+ * </p>
+ */
+public class PersistentRMQ implements RMQ {
+    private final int size;
+    private int[] mins;
+    private int[] lefts;
+    private int[] rights;
+    private int nodes;
+    private int[] roots;
+    private int first;
+    private int versions;
+
+    /**
+     * Persistent range minimum query structure with arr as version 0.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public PersistentRMQ(int[] arr) {
+        this.size = arr.length;
+        int capacity = Math.max(1, 2 * size);
+        mins = new int[capacity];
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        roots = new int[16];
+        roots[0] = size == 0 ? -1 : build(arr, 0, size - 1);
+        versions = 1;
+    }
+
+    private int build(int[] arr, int lo, int hi) {
+        if (lo == hi) {
+            return node(arr[lo], -1, -1);
+        }
+        int mid = (lo + hi) >>> 1;
+        int left = build(arr, lo, mid);
+        int right = build(arr, mid + 1, hi);
+        return node(Math.min(mins[left], mins[right]), left, right);
+    }
+
+    private int node(int min, int left, int right) {
+        if (nodes == mins.length) {
+            int capacity = nodes + (nodes >> 1) + 1;
+            mins = Arrays.copyOf(mins, capacity);
+            lefts = Arrays.copyOf(lefts, capacity);
+            rights = Arrays.copyOf(rights, capacity);
+        }
+        mins[nodes] = min;
+        lefts[nodes] = left;
+        rights[nodes] = right;
+        return nodes++;
+    }
+
+    /**
+     * Newest version.
+     *
+     * @return The number of the newest version.
+     */
+    public int latest() {
+        return first + versions - 1;
+    }
+
+    /**
+     * Oldest version that has not been released.
+     *
+     * @return The number of the oldest version.
+     */
+    public int oldest() {
+        return first;
+    }
+
+    /**
+     * Number of tree nodes stored for all versions.
+     *
+     * @return The number of nodes.
+     */
+    public int nodeCount() {
+        return nodes;
+    }
+
+    private int root(int version) {
+        if (version < first || version > latest()) {
+            throw new IllegalArgumentException("no version " + version + ", versions are "
+                    + first + ".." + latest());
+        }
+        return roots[version - first];
+    }
+
+    /**
+     * Create a new version from the newest one with a single value changed.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     * @return The number of the new version.
+     */
+    public int update(int idx, int value) {
+        return update(latest(), idx, value);
+    }
+
+    /**
+     * Create a new version from the given one with a single value changed in
+     * O(log n) time and space. Versions form a tree, so an old version can be
+     * updated too.
+     *
+     * @param version Version to update.
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     * @return The number of the new version.
+     */
+    public int update(int version, int idx, int value) {
+        int root = root(version);
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        root = set(root, 0, size - 1, idx, value);
+        if (versions == roots.length) {
+            roots = Arrays.copyOf(roots, versions * 2);
+        }
+        roots[versions++] = root;
+        return latest();
+    }
+
+    private int set(int node, int lo, int hi, int idx, int value) {
+        if (lo == hi) {
+            return node(value, -1, -1);
+        }
+        int mid = (lo + hi) >>> 1;
+        int left = lefts[node];
+        int right = rights[node];
+        if (idx <= mid) {
+            left = set(left, lo, mid, idx, value);
+        } else {
+            right = set(right, mid + 1, hi, idx, value);
+        }
+        return node(Math.min(mins[left], mins[right]), left, right);
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in the newest version.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        return query(latest(), l, r);
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] as of the given version in
+     * O(log n) time.
+     *
+     * @param version Version to query.
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    public int query(int version, int l, int r) {
+        int root = root(version);
+        Ranges.check(size, l, r);
+        return queryNode(root, 0, size - 1, l, r);
+    }
+
+    private int queryNode(int node, int lo, int hi, int l, int r) {
+        if (l <= lo && hi <= r) {
+            return mins[node];
+        }
+        int mid = (lo + hi) >>> 1;
+        int res = Integer.MAX_VALUE;
+        if (l <= mid) {
+            res = queryNode(lefts[node], lo, mid, l, r);
+        }
+        if (r > mid) {
+            res = Math.min(res, queryNode(rights[node], mid + 1, hi, l, r));
+        }
+        return res;
+    }
+
+    /**
+     * Release all versions older than the given one, which stays queryable
+     * along with every newer version. Takes time linear in the number of
+     * nodes, and shrinks the node arrays to the nodes still in use.
+     *
+     * @param version Oldest version to keep.
+     */
+    public void release(int version) {
+        root(version);
+        if (version == first) {
+            return;
+        }
+        int[] remap = new int[nodes];
+        Arrays.fill(remap, -1);
+        int[] oldMins = mins;
+        int[] oldLefts = lefts;
+        int[] oldRights = rights;
+        int kept = versions - (version - first);
+        int[] oldRoots = Arrays.copyOfRange(roots, version - first, versions);
+        int live = 0;
+        for (int i = 0; i < kept; i++) {
+            live += countNew(oldRoots[i], oldLefts, oldRights, remap);
+        }
+        mins = new int[Math.max(1, live)];
+        lefts = new int[mins.length];
+        rights = new int[mins.length];
+        nodes = 0;
+        Arrays.fill(remap, -1);
+        roots = new int[Math.max(16, kept)];
+        for (int i = 0; i < kept; i++) {
+            roots[i] = oldRoots[i] < 0 ? -1 : copy(oldRoots[i], oldMins, oldLefts, oldRights,
+                    remap);
+        }
+        first = version;
+        versions = kept;
+    }
+
+    /**
+     * Mark the nodes reachable from node that are not marked yet and count
+     * them.
+     */
+    private static int countNew(int node, int[] lefts, int[] rights, int[] marks) {
+        if (node < 0 || marks[node] != -1) {
+            return 0;
+        }
+        marks[node] = 0;
+        return 1 + countNew(lefts[node], lefts, rights, marks)
+                + countNew(rights[node], lefts, rights, marks);
+    }
+
+    /**
+     * Copy the subtree of node from the old arrays, copying shared nodes
+     * only once.
+     */
+    private int copy(int node, int[] oldMins, int[] oldLefts, int[] oldRights, int[] remap) {
+        if (remap[node] == -1) {
+            int left = oldLefts[node] < 0 ? -1
+                    : copy(oldLefts[node], oldMins, oldLefts, oldRights, remap);
+            int right = oldRights[node] < 0 ? -1
+                    : copy(oldRights[node], oldMins, oldLefts, oldRights, remap);
+            remap[node] = node(oldMins[node], left, right);
+        }
+        return remap[node];
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentRMQ[size = " + size + ", versions = " + first + ".." + latest()
+                + ", nodes = " + nodes + "]";
+    }
+}
@@ -2,4 +2,49 @@ package rmq.domain;
 
 public interface RMQ {
     int query(int l, int r);
+
+    /**
+     * Compute the index of the minimum value in arr[l..r]. If the minimum
+     * occurs more than once, the leftmost index is returned.
+     * <p>
+     * The default implementation binary searches for the shortest prefix of
+     * the range with the same minimum, using O(log n) calls to query.
+     * </p>
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The leftmost index of the minimum value in arr[l..r].
+     */
+    default int queryIndex(int l, int r) {
+        int min = query(l, r);
+        int lo = l;
+        int hi = r;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (query(l, mid) == min) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * out[i] is set to the minimum value in arr[l[i]..r[i]]. Implementations
+     * may validate the whole batch before answering any queries.
+     * </p>
+     *
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    default void queryAll(int[] l, int[] r, int[] out) {
+        Ranges.checkLengths(l, r, out);
+        for (int i = 0; i < l.length; i++) {
+            out[i] = query(l[i], r[i]);
+        }
+    }
 }
@@ -0,0 +1,381 @@
+package rmq.domain;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Opt in counters and latency histograms for RMQ structures
+ * <p>
+ * {@link #instrument(RMQ)} wraps a structure so that every query records its
+ * range length and every update is counted, and a random sample of about one
+ * in 8 calls records its latency. {@link #build(Supplier)} records build
+ * times, and {@link AdaptiveRMQ} records its choices of engine when the
+ * metrics are given in {@link RMQs.Hints#metrics(RMQMetrics)}. Recording
+ * only increments striped counters and does not allocate.
+ * Metrics are read through {@link #toString()}, {@link #toJson()}, a
+ * periodic {@link #report} or JMX after {@link #register()}.
+ * </p>
+ * <p>
+ * Instrumentation is enabled with the system property
+ * {@code -Drmq.metrics=true} or explicitly in the constructor. When it is
+ * disabled, {@link #instrument(RMQ)} returns the structure itself, so there
+ * is no wrapper and no cost at all.
+ * </p>
+ */
+public final class RMQMetrics implements RMQMetricsMBean {
+    /**
+     * Default for new metrics, from the system property rmq.metrics.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("rmq.metrics");
+
+    private final String name;
+    private final boolean enabled;
+    private final LogHistogram queryLatency = new LogHistogram();
+    private final LogHistogram updateLatency = new LogHistogram();
+    private final LogHistogram rangeLength = new LogHistogram();
+    private final LogHistogram buildTime = new LogHistogram();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder[] decisions = new LongAdder[RMQs.Kind.values().length];
+    private volatile RMQs.Decision lastDecision;
+    private ObjectName objectName;
+
+    /**
+     * Metrics enabled according to the rmq.metrics system property.
+     *
+     * @param name Name of the metrics, used in snapshots and JMX.
+     */
+    public RMQMetrics(String name) {
+        this(name, ENABLED);
+    }
+
+    /**
+     * Metrics that are explicitly enabled or disabled.
+     *
+     * @param name Name of the metrics, used in snapshots and JMX.
+     * @param enabled Whether structures are instrumented.
+     */
+    public RMQMetrics(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+        for (int i = 0; i < decisions.length; i++) {
+            decisions[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Whether structures are instrumented.
+     *
+     * @return True if enabled.
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Wrap rmq to record its queries, or return it unchanged if disabled.
+     * If rmq is an {@link UpdatableRMQ}, so is the wrapper, and its updates
+     * are recorded as well.
+     *
+     * @param rmq The structure to instrument.
+     * @return The instrumented structure.
+     */
+    public RMQ instrument(RMQ rmq) {
+        if (rmq instanceof UpdatableRMQ) {
+            return instrument((UpdatableRMQ)rmq);
+        }
+        return enabled ? new InstrumentedRMQ(rmq, this) : rmq;
+    }
+
+    /**
+     * Wrap rmq to record its queries and updates, or return it unchanged if
+     * disabled.
+     *
+     * @param rmq The structure to instrument.
+     * @return The instrumented structure.
+     */
+    public UpdatableRMQ instrument(UpdatableRMQ rmq) {
+        return enabled ? new InstrumentedUpdatableRMQ(rmq, this) : rmq;
+    }
+
+    /**
+     * Build a structure, recording the build time if enabled.
+     *
+     * @param <T> Type of the structure.
+     * @param builder Builds the structure.
+     * @return The structure, not instrumented.
+     */
+    public <T> T build(Supplier<T> builder) {
+        if (!enabled) {
+            return builder.get();
+        }
+        long t = System.nanoTime();
+        T rmq = builder.get();
+        buildTime.record(System.nanoTime() - t, 1);
+        return rmq;
+    }
+
+    void recordQueryLatency(long nanos, long count) {
+        queryLatency.record(nanos / count, count);
+    }
+
+    long queryLatencyCount() {
+        return queryLatency.count();
+    }
+
+    void recordLength(int length) {
+        rangeLength.record(length, 1);
+    }
+
+    void countUpdate() {
+        updates.increment();
+    }
+
+    void recordUpdateLatency(long nanos) {
+        updateLatency.record(nanos, 1);
+    }
+
+    void recordDecision(RMQs.Decision decision) {
+        if (enabled) {
+            decisions[decision.kind().ordinal()].increment();
+            lastDecision = decision;
+        }
+    }
+
+    /**
+     * Number of times an engine was chosen by {@link AdaptiveRMQ}, both
+     * initially and when switching.
+     *
+     * @param kind The engine.
+     * @return Decisions for the engine since the last reset.
+     */
+    public long decisionCount(RMQs.Kind kind) {
+        return decisions[kind.ordinal()].sum();
+    }
+
+    /**
+     * The latest choice of engine.
+     *
+     * @return The decision, or null if none was made since the last reset.
+     */
+    public RMQs.Decision lastDecision() {
+        return lastDecision;
+    }
+
+    /**
+     * Register in the platform MBean server as rmq:type=RMQMetrics,name=name.
+     *
+     * @return The name the metrics were registered with.
+     * @throws JMException If registration fails, for example because the
+     *     name is taken.
+     */
+    public synchronized ObjectName register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName on = new ObjectName("rmq:type=RMQMetrics,name=" + ObjectName.quote(name));
+        server.registerMBean(this, on);
+        objectName = on;
+        return on;
+    }
+
+    /**
+     * Remove the metrics from the platform MBean server if registered.
+     *
+     * @throws JMException If unregistering fails.
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    /**
+     * Pass a JSON snapshot to out every period until the returned future is
+     * cancelled.
+     *
+     * @param executor Executor to run the reports on.
+     * @param period Time between reports.
+     * @param unit Unit of period.
+     * @param out Receives the snapshots.
+     * @return Future that stops the reports when cancelled.
+     */
+    public ScheduledFuture<?> report(ScheduledExecutorService executor, long period,
+            TimeUnit unit, Consumer<String> out) {
+        return executor.scheduleAtFixedRate(() -> out.accept(toJson()), period, period, unit);
+    }
+
+    @Override
+    public long getQueryCount() {
+        return rangeLength.count();
+    }
+
+    @Override
+    public long getUpdateCount() {
+        return updates.sum();
+    }
+
+    @Override
+    public long getBuildCount() {
+        return buildTime.count();
+    }
+
+    @Override
+    public long getQueryLatencyP50() {
+        return queryLatency.percentile(50);
+    }
+
+    @Override
+    public long getQueryLatencyP99() {
+        return queryLatency.percentile(99);
+    }
+
+    @Override
+    public long getQueryLatencyP999() {
+        return queryLatency.percentile(99.9);
+    }
+
+    @Override
+    public long getQueryLatencyMax() {
+        return queryLatency.max();
+    }
+
+    @Override
+    public long getUpdateLatencyP50() {
+        return updateLatency.percentile(50);
+    }
+
+    @Override
+    public long getUpdateLatencyP99() {
+        return updateLatency.percentile(99);
+    }
+
+    @Override
+    public long getUpdateLatencyMax() {
+        return updateLatency.max();
+    }
+
+    @Override
+    public long getRangeLengthP50() {
+        return rangeLength.percentile(50);
+    }
+
+    @Override
+    public long getRangeLengthP99() {
+        return rangeLength.percentile(99);
+    }
+
+    @Override
+    public long getBuildTimeMax() {
+        return buildTime.max();
+    }
+
+    @Override
+    public long getDecisionCount() {
+        long n = 0;
+        for (LongAdder count : decisions) {
+            n += count.sum();
+        }
+        return n;
+    }
+
+    @Override
+    public String getDecisionCounts() {
+        StringBuilder sb = new StringBuilder();
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            sb.append(sb.length() == 0 ? "" : ", ").append(kind).append(' ')
+                    .append(decisionCount(kind));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getLastDecision() {
+        RMQs.Decision decision = lastDecision;
+        return decision == null ? "" : String.format(Locale.ROOT,
+                "%s for %d elements at %.3f updates per query: %s", decision.kind(),
+                decision.size(), decision.updatesPerQuery(), decision.reason());
+    }
+
+    @Override
+    public String getSnapshotJson() {
+        return toJson();
+    }
+
+    @Override
+    public void reset() {
+        queryLatency.reset();
+        updateLatency.reset();
+        rangeLength.reset();
+        buildTime.reset();
+        updates.reset();
+        for (LongAdder count : decisions) {
+            count.reset();
+        }
+        lastDecision = null;
+    }
+
+    /**
+     * Snapshot of the metrics as a single JSON object.
+     *
+     * @return The snapshot.
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"name\":\"%s\",\"queries\":%d,\"updates\":%d,"
+                + "\"queryLatencyNanos\":%s,\"updateLatencyNanos\":%s,\"rangeLength\":%s,"
+                + "\"buildNanos\":%s,\"decisions\":%s}",
+                quote(name), getQueryCount(), getUpdateCount(), json(queryLatency),
+                json(updateLatency), json(rangeLength), json(buildTime), decisionsJson());
+    }
+
+    private String decisionsJson() {
+        StringBuilder sb = new StringBuilder("{\"counts\":{");
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            sb.append(kind.ordinal() == 0 ? "" : ",").append('"').append(kind).append("\":")
+                    .append(decisionCount(kind));
+        }
+        RMQs.Decision decision = lastDecision;
+        if (decision == null) {
+            return sb.append("},\"last\":null}").toString();
+        }
+        return sb.append(String.format(Locale.ROOT, "},\"last\":{\"kind\":\"%s\",\"size\":%d,"
+                + "\"updatesPerQuery\":%.3f,\"timeMillis\":%d,\"reason\":\"%s\"}}",
+                decision.kind(), decision.size(), decision.updatesPerQuery(),
+                decision.timeMillis(), quote(decision.reason()))).toString();
+    }
+
+    private static String quote(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String json(LogHistogram h) {
+        return String.format(Locale.ROOT,
+                "{\"count\":%d,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"p999\":%d,\"max\":%d}",
+                h.count(), h.percentile(50), h.percentile(90), h.percentile(99),
+                h.percentile(99.9), h.max());
+    }
+
+    private static String text(LogHistogram h) {
+        return String.format(Locale.ROOT, "count %d, p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n",
+                h.count(), h.percentile(50), h.percentile(90), h.percentile(99),
+                h.percentile(99.9), h.max());
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getQueryCount() + " queries, " + getUpdateCount() + " updates\n"
+                + "  query latency (ns): " + text(queryLatency)
+                + "  update latency (ns): " + text(updateLatency)
+                + "  range length: " + text(rangeLength)
+                + "  build time (ns): " + text(buildTime)
+                + "  decisions: " + getDecisionCounts()
+                + (lastDecision == null ? "" : "\n  last decision: " + getLastDecision());
+    }
+}
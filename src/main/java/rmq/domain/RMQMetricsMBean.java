@@ -0,0 +1,136 @@
+package rmq.domain;
+
+/**
+ * JMX view of {@link RMQMetrics}. Latencies are in nanoseconds and sampled
+ * from about one in 8 calls. Percentiles are the upper bound of the
+ * histogram bucket that contains them, and 0 if nothing was recorded.
+ */
+public interface RMQMetricsMBean {
+    /**
+     * Number of queries, counting every query of a batch.
+     *
+     * @return Queries since the last reset.
+     */
+    long getQueryCount();
+
+    /**
+     * Number of updates.
+     *
+     * @return Updates since the last reset.
+     */
+    long getUpdateCount();
+
+    /**
+     * Number of structures built through {@link RMQMetrics#build}.
+     *
+     * @return Builds since the last reset.
+     */
+    long getBuildCount();
+
+    /**
+     * Median query latency.
+     *
+     * @return The 50th percentile in nanoseconds.
+     */
+    long getQueryLatencyP50();
+
+    /**
+     * 99th percentile of the query latency.
+     *
+     * @return The 99th percentile in nanoseconds.
+     */
+    long getQueryLatencyP99();
+
+    /**
+     * 99.9th percentile of the query latency.
+     *
+     * @return The 99.9th percentile in nanoseconds.
+     */
+    long getQueryLatencyP999();
+
+    /**
+     * Largest sampled query latency. A batch counts as a single sample of
+     * its mean latency.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    long getQueryLatencyMax();
+
+    /**
+     * Median update latency.
+     *
+     * @return The 50th percentile in nanoseconds.
+     */
+    long getUpdateLatencyP50();
+
+    /**
+     * 99th percentile of the update latency.
+     *
+     * @return The 99th percentile in nanoseconds.
+     */
+    long getUpdateLatencyP99();
+
+    /**
+     * Largest sampled update latency.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    long getUpdateLatencyMax();
+
+    /**
+     * Median length of the query ranges.
+     *
+     * @return The 50th percentile in elements.
+     */
+    long getRangeLengthP50();
+
+    /**
+     * 99th percentile of the length of the query ranges.
+     *
+     * @return The 99th percentile in elements.
+     */
+    long getRangeLengthP99();
+
+    /**
+     * Longest build time.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    long getBuildTimeMax();
+
+    /**
+     * Number of engine choices made by {@link AdaptiveRMQ}, both initially
+     * and when switching.
+     *
+     * @return Decisions since the last reset.
+     */
+    long getDecisionCount();
+
+    /**
+     * Number of choices of every engine, as "KIND count" pairs separated by
+     * commas.
+     *
+     * @return The counts per engine since the last reset.
+     */
+    String getDecisionCounts();
+
+    /**
+     * The latest choice of engine with its size, update rate and reason.
+     *
+     * @return The decision, or an empty string if none was made since the
+     *     last reset.
+     */
+    String getLastDecision();
+
+    /**
+     * All metrics as a single JSON object, as {@link RMQMetrics#toJson()}.
+     *
+     * @return The JSON snapshot.
+     */
+    String getSnapshotJson();
+
+    /**
+     * Clear all counters and histograms.
+     */
+    void reset();
+}
@@ -0,0 +1,342 @@
+package rmq.domain;
+
+import java.util.function.Function;
+
+/**
+ * Factory that picks the range minimum query structure for a workload
+ * <p>
+ * {@link #build(int[], Hints)} estimates the cost per operation of every
+ * engine from a {@link CalibrationProfile} and the expected number of
+ * updates per query, skips engines that do not fit in the memory budget, and
+ * returns an {@link AdaptiveRMQ} around the cheapest one. Updates to a
+ * static engine rebuild it, so static engines are only chosen for read
+ * mostly workloads, and the returned structure switches itself to a dynamic
+ * engine if updates turn out to be more frequent than expected.
+ * </p>
+ */
+public final class RMQs {
+    private RMQs() {
+    }
+
+    /**
+     * Engines the factory chooses between.
+     */
+    public enum Kind {
+        FLAT_STATIC(false, FlatStaticRMQ::new),
+        LINEAR(false, LinearRMQ::new),
+        DYNAMIC(true, DynamicRMQ::new),
+        WIDE_DYNAMIC(true, WideDynamicRMQ::new);
+
+        private final boolean dynamic;
+        private final Function<int[], RMQ> factory;
+
+        Kind(boolean dynamic, Function<int[], RMQ> factory) {
+            this.dynamic = dynamic;
+            this.factory = factory;
+        }
+
+        /**
+         * Whether the engine supports updates without rebuilding.
+         *
+         * @return True for dynamic engines.
+         */
+        public boolean dynamic() {
+            return dynamic;
+        }
+
+        /**
+         * Build the engine for arr.
+         *
+         * @param arr The input array.
+         * @return The structure.
+         */
+        public RMQ build(int[] arr) {
+            return factory.apply(arr);
+        }
+
+        /**
+         * Approximate memory use of the engine for an array of the given
+         * size in bytes.
+         *
+         * @param size Number of elements.
+         * @return Estimated size in bytes, or Long.MAX_VALUE if the engine
+         *     can not be built for that size.
+         */
+        public long bytes(int size) {
+            switch (this) {
+                case FLAT_STATIC:
+                    return ints(SparseTables.uncheckedLength(size), 1);
+                case LINEAR:
+                    return 8L * size + 4L * SparseTables.uncheckedLength(size / 32 + 1);
+                case DYNAMIC:
+                    return ints(2 * Long.highestOneBit(Math.max(1, 2L * size - 1)), 1);
+                default:
+                    return ints(WideDynamicRMQ.treeLength(size), 3);
+            }
+        }
+
+        /**
+         * Size in bytes of the given number of int arrays of the given
+         * length, or Long.MAX_VALUE if the length is too large for an array.
+         */
+        private static long ints(long length, int arrays) {
+            return length > Integer.MAX_VALUE ? Long.MAX_VALUE : 4L * arrays * length;
+        }
+    }
+
+    /**
+     * Expected workload of a structure.
+     */
+    public static final class Hints {
+        private double updatesPerQuery;
+        private long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        private CalibrationProfile profile = CalibrationProfile.defaults();
+        private boolean adaptive = true;
+        private RMQMetrics metrics;
+
+        /**
+         * Expected number of updates per query, 0 by default.
+         *
+         * @param ratio Updates per query.
+         * @return These hints.
+         */
+        public Hints updatesPerQuery(double ratio) {
+            if (!(ratio >= 0)) {
+                throw new IllegalArgumentException("ratio: " + ratio);
+            }
+            this.updatesPerQuery = ratio;
+            return this;
+        }
+
+        /**
+         * Largest structure to build in bytes, half of the maximum heap size
+         * by default.
+         *
+         * @param bytes Memory budget in bytes.
+         * @return These hints.
+         */
+        public Hints memoryBudget(long bytes) {
+            this.memoryBudget = bytes;
+            return this;
+        }
+
+        /**
+         * Measured costs of the engines, {@link CalibrationProfile#defaults()}
+         * by default.
+         *
+         * @param profile Profile to use.
+         * @return These hints.
+         */
+        public Hints profile(CalibrationProfile profile) {
+            if (profile == null) {
+                throw new NullPointerException("profile");
+            }
+            this.profile = profile;
+            return this;
+        }
+
+        /**
+         * Whether a static engine may be switched to a dynamic one when the
+         * observed update rate rises, true by default.
+         *
+         * @param adaptive Whether to switch.
+         * @return These hints.
+         */
+        public Hints adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * Metrics to record every choice of engine in, none by default.
+         *
+         * @param metrics Metrics for the decisions, or null for none.
+         * @return These hints.
+         */
+        public Hints metrics(RMQMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        double getUpdatesPerQuery() {
+            return updatesPerQuery;
+        }
+
+        long getMemoryBudget() {
+            return memoryBudget;
+        }
+
+        CalibrationProfile getProfile() {
+            return profile;
+        }
+
+        boolean isAdaptive() {
+            return adaptive;
+        }
+
+        RMQMetrics getMetrics() {
+            return metrics;
+        }
+    }
+
+    /**
+     * An engine choice and the reason for it.
+     */
+    public static final class Decision {
+        private final long timeMillis;
+        private final Kind kind;
+        private final int size;
+        private final double updatesPerQuery;
+        private final String reason;
+
+        Decision(Kind kind, int size, double updatesPerQuery, String reason) {
+            this.timeMillis = System.currentTimeMillis();
+            this.kind = kind;
+            this.size = size;
+            this.updatesPerQuery = updatesPerQuery;
+            this.reason = reason;
+        }
+
+        /**
+         * When the decision was made.
+         *
+         * @return Time in milliseconds since the epoch.
+         */
+        public long timeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * The chosen engine.
+         *
+         * @return The engine.
+         */
+        public Kind kind() {
+            return kind;
+        }
+
+        /**
+         * Number of elements the engine was chosen for.
+         *
+         * @return The array size.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Update rate the engine was chosen for, expected or observed.
+         *
+         * @return Updates per query.
+         */
+        public double updatesPerQuery() {
+            return updatesPerQuery;
+        }
+
+        /**
+         * Why the engine was chosen.
+         *
+         * @return A human readable reason.
+         */
+        public String reason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return kind + ": " + reason;
+        }
+    }
+
+    /**
+     * Build a structure for arr using the default hints, for a read only
+     * workload.
+     *
+     * @param arr The input array.
+     * @return The structure.
+     */
+    public static AdaptiveRMQ build(int[] arr) {
+        return build(arr, new Hints());
+    }
+
+    /**
+     * Build the cheapest structure for arr and the given workload.
+     *
+     * @param arr The input array.
+     * @param hints Expected workload.
+     * @return The structure.
+     */
+    public static AdaptiveRMQ build(int[] arr, Hints hints) {
+        return new AdaptiveRMQ(arr, hints);
+    }
+
+    /**
+     * The engine {@link #build(int[], Hints)} starts with for an array of the
+     * given size, without building it.
+     *
+     * @param size Number of elements.
+     * @param hints Expected workload.
+     * @return The engine and the reason for it.
+     */
+    public static Decision decide(int size, Hints hints) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        return choose(size, hints.getUpdatesPerQuery(), false, hints);
+    }
+
+    /**
+     * Cheapest engine for the given update rate that fits the memory budget,
+     * or the smallest engine if none fits. Engines that can not be built for
+     * the size at all are skipped.
+     */
+    static Decision choose(int size, double updatesPerQuery, boolean dynamicOnly,
+            Hints hints) {
+        CalibrationProfile profile = hints.getProfile();
+        Kind best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        Kind smallest = null;
+        for (Kind kind : Kind.values()) {
+            if (dynamicOnly && !kind.dynamic() || kind.bytes(size) == Long.MAX_VALUE) {
+                continue;
+            }
+            if (smallest == null || kind.bytes(size) < smallest.bytes(size)) {
+                smallest = kind;
+            }
+            if (kind.bytes(size) > hints.getMemoryBudget()) {
+                continue;
+            }
+            double cost = cost(profile, kind, size, updatesPerQuery);
+            if (cost < bestCost) {
+                best = kind;
+                bestCost = cost;
+            }
+        }
+        if (smallest == null) {
+            throw new IllegalArgumentException("no dynamic engine supports " + size
+                    + " elements");
+        }
+        if (best == null) {
+            return new Decision(smallest, size, updatesPerQuery, "no engine fits in "
+                    + hints.getMemoryBudget() + " bytes for " + size
+                    + " elements, using the smallest");
+        }
+        return new Decision(best, size, updatesPerQuery, String.format("%.1f ns per query at "
+                + "%.3f updates per query for %d elements, %d bytes", bestCost, updatesPerQuery,
+                size, best.bytes(size)));
+    }
+
+    /**
+     * Estimated cost of one query and the expected share of updates in
+     * nanoseconds. Static engines are rebuilt before the first query after
+     * any number of updates, so they rebuild at most once per query.
+     */
+    static double cost(CalibrationProfile profile, Kind kind, int size,
+            double updatesPerQuery) {
+        if (kind.dynamic()) {
+            return profile.queryNanos(kind) + updatesPerQuery * profile.updateNanos(kind);
+        }
+        double rebuild = profile.buildNanosPerElement(kind) * size;
+        return profile.queryNanos(kind) + Math.min(1, updatesPerQuery) * rebuild;
+    }
+}
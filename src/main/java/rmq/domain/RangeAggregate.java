@@ -0,0 +1,22 @@
+package rmq.domain;
+
+/**
+ * Range query structure for an {@link Aggregate} operator.
+ */
+public interface RangeAggregate {
+    /**
+     * Combine the values in arr[l..r] from left to right.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return op(arr[l], ..., arr[r]).
+     */
+    int query(int l, int r);
+
+    /**
+     * The operator the structure was built for.
+     *
+     * @return The operator.
+     */
+    Aggregate aggregate();
+}
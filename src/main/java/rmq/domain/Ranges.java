@@ -0,0 +1,118 @@
+package rmq.domain;
+
+/**
+ * Argument checks shared by the query implementations.
+ */
+final class Ranges {
+    private Ranges() {
+    }
+
+    /**
+     * Check a single query over an array of the given size.
+     */
+    static void check(int size, int l, int r) {
+        if (l < 0) {
+            throw new IndexOutOfBoundsException("l = " + l);
+        }
+        if (r >= size) {
+            throw new IndexOutOfBoundsException("r = " + r);
+        }
+        if (l > r) {
+            throw new IllegalArgumentException("r needs to be greater or equal to l");
+        }
+    }
+
+    /**
+     * Check a rectangle query over a matrix of the given size.
+     */
+    static void check(int rows, int cols, int r1, int c1, int r2, int c2) {
+        if (r1 < 0) {
+            throw new IndexOutOfBoundsException("r1 = " + r1);
+        }
+        if (c1 < 0) {
+            throw new IndexOutOfBoundsException("c1 = " + c1);
+        }
+        if (r2 >= rows) {
+            throw new IndexOutOfBoundsException("r2 = " + r2);
+        }
+        if (c2 >= cols) {
+            throw new IndexOutOfBoundsException("c2 = " + c2);
+        }
+        if (r1 > r2 || c1 > c2) {
+            throw new IllegalArgumentException(
+                    "r2 and c2 need to be greater or equal to r1 and c1");
+        }
+    }
+
+    /**
+     * Check that all rows of the matrix have the same length and return it.
+     */
+    static int columns(int[][] matrix) {
+        int cols = matrix.length == 0 ? 0 : matrix[0].length;
+        for (int i = 1; i < matrix.length; i++) {
+            if (matrix[i].length != cols) {
+                throw new IllegalArgumentException("row " + i + " has " + matrix[i].length
+                        + " values, expected " + cols);
+            }
+        }
+        return cols;
+    }
+
+    /**
+     * Check that arr contains no NaN values.
+     */
+    static void checkNotNaN(double[] arr) {
+        for (int i = 0; i < arr.length; i++) {
+            if (Double.isNaN(arr[i])) {
+                throw new IllegalArgumentException("NaN is not supported: arr[" + i + "]");
+            }
+        }
+    }
+
+    /**
+     * Check that the query and output arrays of a batch fit together.
+     */
+    static void checkLengths(int[] l, int[] r, int[] out) {
+        checkLengths(l, r, out.length);
+    }
+
+    /**
+     * Check that the query arrays of a batch fit together and with an output
+     * array of the given length.
+     */
+    static void checkLengths(int[] l, int[] r, int results) {
+        if (l.length != r.length) {
+            throw new IllegalArgumentException("l and r need to have the same length");
+        }
+        if (results < l.length) {
+            throw new IllegalArgumentException("out needs to fit " + l.length + " results");
+        }
+    }
+
+    /**
+     * Check a whole batch of queries over an array of the given size.
+     */
+    static void checkAll(int size, int[] l, int[] r, int[] out) {
+        checkAll(size, l, r, out.length);
+    }
+
+    /**
+     * Check a whole batch of queries over an array of the given size, with
+     * an output array of the given length.
+     */
+    static void checkAll(int size, int[] l, int[] r, int results) {
+        checkLengths(l, r, results);
+        for (int i = 0; i < l.length; i++) {
+            if (l[i] < 0) {
+                throw new IndexOutOfBoundsException("l[" + i + "] = " + l[i]);
+            }
+            if (r[i] >= size) {
+                throw new IndexOutOfBoundsException("r[" + i + "] = " + r[i]);
+            }
+            if (l[i] > r[i]) {
+                throw new IllegalArgumentException("r[" + i + "] needs to be greater or equal to l["
+                        + i + "]");
+            }
+        }
+    }
+}
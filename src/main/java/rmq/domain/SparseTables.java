@@ -0,0 +1,58 @@
+package rmq.domain;
+
+/**
+ * Layout shared by the flat sparse tables.
+ * <p>
+ * Level k holds the minima of the size - 2^k + 1 ranges of length 2^k, and
+ * the levels are stored one after another in a single array.
+ * </p>
+ */
+final class SparseTables {
+    private SparseTables() {
+    }
+
+    /**
+     * Floor of the base 2 logarithm of a positive integer.
+     */
+    static int log2(int x) {
+        return 31 - Integer.numberOfLeadingZeros(x);
+    }
+
+    /**
+     * Start of each level in the table for an array of the given size.
+     */
+    static int[] offsets(int size) {
+        int levels = size == 0 ? 0 : log2(size) + 1;
+        int[] offsets = new int[levels];
+        long total = 0;
+        for (int k = 0; k < levels; k++) {
+            offsets[k] = (int)total;
+            total += size - (1 << k) + 1;
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("array too large: " + size);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Total length of the table for an array of the given size.
+     */
+    static int length(int size) {
+        int[] offsets = offsets(size);
+        int levels = offsets.length;
+        return levels == 0 ? 0 : offsets[levels - 1] + size - (1 << (levels - 1)) + 1;
+    }
+
+    /**
+     * Total length of the table for an array of the given size without
+     * checking that it fits in an array.
+     */
+    static long uncheckedLength(int size) {
+        long total = 0;
+        for (int k = 0; k < 31 && size >= 1 << k; k++) {
+            total += size - (1 << k) + 1;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,119 @@
+package rmq.domain;
+
+/**
+ * Static minimum query structure for rectangles of an integer matrix
+ * <p>
+ * A two dimensional sparse table: level (a, b) holds the minimum of every
+ * 2^a by 2^b rectangle, so any rectangle is covered by four overlapping
+ * rectangles of one level and queries take constant time. The levels are
+ * stored one after another in a single array, each row major.
+ * </p>
+ * <p>
+ * The table takes O(nm log n log m) space, which for a 1000 by 1000 matrix
+ * is around 80 million ints. {@link DynamicMatrixRMQ} only needs 4nm ints.
+ * </p>
+ */
+public class StaticMatrixRMQ implements MatrixRMQ {
+    private final int rows;
+    private final int cols;
+    private final int colLevels;
+    private final int[] offsets;
+    private final int[] table;
+
+    /**
+     * Static minimum query structure for rectangles of given matrix.
+     *
+     * @param matrix The input matrix, all rows of the same length.
+     */
+    public StaticMatrixRMQ(int[][] matrix) {
+        this.rows = matrix.length;
+        this.cols = Ranges.columns(matrix);
+        int rowLevels = rows == 0 ? 0 : SparseTables.log2(rows) + 1;
+        colLevels = cols == 0 ? 0 : SparseTables.log2(cols) + 1;
+        offsets = new int[rowLevels * colLevels];
+        long total = 0;
+        for (int a = 0; a < rowLevels; a++) {
+            for (int b = 0; b < colLevels; b++) {
+                offsets[a * colLevels + b] = (int)total;
+                total += (long)(rows - (1 << a) + 1) * (cols - (1 << b) + 1);
+                if (total > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("matrix too large: " + rows + " x " + cols);
+                }
+            }
+        }
+        table = new int[(int)total];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix[i], 0, table, i * cols, cols);
+        }
+        for (int a = 0; a < rowLevels; a++) {
+            int height = rows - (1 << a) + 1;
+            for (int b = 0; b < colLevels; b++) {
+                if (a == 0 && b == 0) {
+                    continue;
+                }
+                int width = cols - (1 << b) + 1;
+                int dst = offsets[a * colLevels + b];
+                if (a == 0) {
+                    // Combine horizontally neighbouring rectangles of the
+                    // previous column level.
+                    int src = offsets[b - 1];
+                    int srcWidth = cols - (1 << (b - 1)) + 1;
+                    int half = 1 << (b - 1);
+                    for (int i = 0; i < height; i++) {
+                        int s = src + i * srcWidth;
+                        int d = dst + i * width;
+                        for (int j = 0; j < width; j++) {
+                            table[d + j] = Math.min(table[s + j], table[s + j + half]);
+                        }
+                    }
+                } else {
+                    // Combine vertically neighbouring rectangles of the
+                    // previous row level.
+                    int src = offsets[(a - 1) * colLevels + b];
+                    int below = (1 << (a - 1)) * width;
+                    for (int i = 0; i < height * width; i++) {
+                        table[dst + i] = Math.min(table[src + i], table[src + i + below]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the minimum value in the rectangle of rows r1..r2 and columns
+     * c1..c2 in constant time.
+     *
+     * @param r1 First row of the rectangle.
+     * @param c1 First column of the rectangle.
+     * @param r2 Last row of the rectangle.
+     * @param c2 Last column of the rectangle.
+     * @return The minimum value in the rectangle.
+     */
+    @Override
+    public int query(int r1, int c1, int r2, int c2) {
+        Ranges.check(rows, cols, r1, c1, r2, c2);
+        int a = SparseTables.log2(r2 - r1 + 1);
+        int b = SparseTables.log2(c2 - c1 + 1);
+        int width = cols - (1 << b) + 1;
+        int level = offsets[a * colLevels + b];
+        int top = level + r1 * width;
+        int bottom = level + (r2 - (1 << a) + 1) * width;
+        int right = c2 - (1 << b) + 1;
+        return Math.min(Math.min(table[top + c1], table[top + right]),
+                Math.min(table[bottom + c1], table[bottom + right]));
+    }
+
+    /**
+     * Number of ints stored in the table.
+     *
+     * @return The length of the table.
+     */
+    public int tableLength() {
+        return table.length;
+    }
+
+    @Override
+    public String toString() {
+        return "StaticMatrixRMQ[" + rows + " x " + cols + ", table = " + table.length + "]";
+    }
+}
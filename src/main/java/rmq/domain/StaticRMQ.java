@@ -1,6 +1,7 @@
 package rmq.domain;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Static range minimum query structure for given integer array
@@ -23,6 +24,21 @@ public class StaticRMQ implements RMQ {
      * @param arr The input array to compute the range minima for.
      */
     public StaticRMQ(int[] arr) {
+        this(arr, null);
+    }
+    
+    /**
+     * Static range minimum query structure for given integer array.
+     * <p>
+     * The cells of each row of the structure are independent of each other, 
+     * so each row is split between the workers of the given pool. The result 
+     * is identical to the sequential build.
+     * </p>
+     * 
+     * @param arr The input array to compute the range minima for.
+     * @param pool Pool used for building, or null to build sequentially.
+     */
+    public StaticRMQ(int[] arr, ForkJoinPool pool) {
         this.arr = arr.clone();
         int rows = (int)(Math.log(arr.length) / Math.log(2));
         structure = new int[rows + 1][arr.length + 1];
@@ -30,14 +46,22 @@ public class StaticRMQ implements RMQ {
             structure[0][i] = i;
         }
         for (int j = 1; j < structure.length; j++) {
-            for (int l = 1; l < structure[j].length; l++) {
-                int r = l + (int)Math.pow(2, j - 1);
-                if (r < structure[j].length 
-                        && arr[structure[j - 1][l] - 1] > arr[structure[j - 1][r] - 1]) {
-                    structure[j][l] = structure[j - 1][r];
-                } else {
-                    structure[j][l] = structure[j - 1][l];
-                }
+            int row = j;
+            ParallelFill.fill(pool, 1, structure[j].length, (from, to) -> fillRow(row, from, to));
+        }
+    }
+    
+    /**
+     * Fill structure[j][from..to) from the previous row.
+     */
+    private void fillRow(int j, int from, int to) {
+        for (int l = from; l < to; l++) {
+            int r = l + (int)Math.pow(2, j - 1);
+            if (r < structure[j].length 
+                    && arr[structure[j - 1][l] - 1] > arr[structure[j - 1][r] - 1]) {
+                structure[j][l] = structure[j - 1][r];
+            } else {
+                structure[j][l] = structure[j - 1][l];
             }
         }
     }
@@ -65,6 +89,46 @@ public class StaticRMQ implements RMQ {
         return Math.min(arr[structure[k][l + 1] - 1], arr[structure[k][rr] - 1]);
     }
     
+    /**
+     * Compute the index of the minimum value in arr[l..r] in constant time.
+     * If the minimum occurs more than once, the leftmost index is returned.
+     * 
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The leftmost index of the minimum value in arr[l..r].
+     */
+    @Override
+    public int queryIndex(int l, int r) {
+        Ranges.check(arr.length, l, r);
+        int k = 31 - Integer.numberOfLeadingZeros(r - l + 1);
+        int a = structure[k][l + 1] - 1;
+        int b = structure[k][r - (1 << k) + 2] - 1;
+        return arr[b] < arr[a] ? b : a;
+    }
+    
+    /**
+     * Compute the range minima for a batch of queries.
+     * <p>
+     * The whole batch is validated before any queries are answered, and the
+     * logarithms are computed with integer operations.
+     * </p>
+     * 
+     * @param l Left limits of the query ranges (inclusive).
+     * @param r Right limits of the query ranges (inclusive).
+     * @param out Array to store the minima in.
+     */
+    @Override
+    public void queryAll(int[] l, int[] r, int[] out) {
+        Ranges.checkAll(arr.length, l, r, out);
+        for (int i = 0; i < l.length; i++) {
+            int k = 31 - Integer.numberOfLeadingZeros(r[i] - l[i] + 1);
+            int[] row = structure[k];
+            int a = arr[row[l[i] + 1] - 1];
+            int b = arr[row[r[i] - (1 << k) + 2] - 1];
+            out[i] = a < b ? a : b;
+        }
+    }
+    
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,77 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Static range query structure for an idempotent operator
+ * <p>
+ * The same flat sparse table as {@link FlatStaticRMQ} with the minimum
+ * replaced by an {@link Aggregate}. A query combines the two overlapping
+ * ranges of length 2^k covering the range, which is only correct for
+ * idempotent operators such as minimum, maximum, gcd, and and or. Queries
+ * take constant time, preprocessing O(n log n) time and space.
+ * </p>
+ */
+public class StaticRangeAggregate implements RangeAggregate {
+    private final Aggregate agg;
+    private final int size;
+    private final int[] offsets;
+    private final int[] table;
+
+    /**
+     * Static range query structure for given integer array and operator.
+     *
+     * @param arr The input array.
+     * @param agg Idempotent operator to combine values with.
+     */
+    public StaticRangeAggregate(int[] arr, Aggregate agg) {
+        if (!agg.idempotent()) {
+            throw new IllegalArgumentException("operator needs to be idempotent");
+        }
+        this.agg = agg;
+        this.size = arr.length;
+        offsets = SparseTables.offsets(size);
+        table = new int[SparseTables.length(size)];
+        System.arraycopy(arr, 0, table, 0, size);
+        for (int k = 1; k < offsets.length; k++) {
+            int prev = offsets[k - 1];
+            int cur = offsets[k];
+            int half = 1 << (k - 1);
+            int len = size - (1 << k) + 1;
+            for (int i = 0; i < len; i++) {
+                table[cur + i] = agg.apply(table[prev + i], table[prev + i + half]);
+            }
+        }
+    }
+
+    /**
+     * Combine the values in arr[l..r] in constant time.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return op(arr[l], ..., arr[r]).
+     */
+    @Override
+    public int query(int l, int r) {
+        Ranges.check(size, l, r);
+        int k = SparseTables.log2(r - l + 1);
+        int base = offsets[k];
+        return agg.apply(table[base + l], table[base + r - (1 << k) + 1]);
+    }
+
+    @Override
+    public Aggregate aggregate() {
+        return agg;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < offsets.length; k++) {
+            sb.append("\n");
+            sb.append(Arrays.toString(Arrays.copyOfRange(table, offsets[k],
+                    offsets[k] + size - (1 << k) + 1)));
+        }
+        return sb.toString();
+    }
+}
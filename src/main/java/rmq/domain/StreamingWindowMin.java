@@ -0,0 +1,124 @@
+package rmq.domain;
+
+import java.nio.IntBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Minimum of the last w values of a stream
+ * <p>
+ * Keeps a monotonic deque of the values in the window that are smaller than
+ * every value pushed after them. The front of the deque is the minimum of the
+ * window. Push and min take amortized constant time, and since the deque
+ * never holds more than w values it is stored in fixed size ring buffers, so
+ * no memory is allocated after construction.
+ * </p>
+ */
+public class StreamingWindowMin {
+    private final int window;
+    private final int[] values;
+    private final long[] positions;
+    private int head;
+    private int count;
+    private long pushed;
+
+    /**
+     * Sliding window minimum over the last window values.
+     *
+     * @param window Length of the window.
+     */
+    public StreamingWindowMin(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window needs to be positive: " + window);
+        }
+        this.window = window;
+        values = new int[window];
+        positions = new long[window];
+    }
+
+    /**
+     * Add a value to the end of the stream in amortized constant time.
+     *
+     * @param value Value to add.
+     */
+    public void push(int value) {
+        // Drop the front first so that a full deque has room for the value.
+        if (count > 0 && positions[head] <= pushed - window) {
+            head = index(1);
+            count--;
+        }
+        while (count > 0 && values[index(count - 1)] >= value) {
+            count--;
+        }
+        int back = index(count);
+        values[back] = value;
+        positions[back] = pushed;
+        count++;
+        pushed++;
+    }
+
+    private int index(int offset) {
+        int i = head + offset;
+        return i >= window ? i - window : i;
+    }
+
+    /**
+     * Add all values to the end of the stream.
+     *
+     * @param values Values to add.
+     */
+    public void pushAll(int[] values) {
+        for (int value : values) {
+            push(value);
+        }
+    }
+
+    /**
+     * Add all values to the end of the stream, storing the window minimum
+     * after each value.
+     *
+     * @param values Values to add.
+     * @param out Array to store the minima in, out[i] is the window minimum
+     *     after values[i] was added.
+     */
+    public void pushAll(int[] values, int[] out) {
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("out needs to fit " + values.length + " results");
+        }
+        for (int i = 0; i < values.length; i++) {
+            push(values[i]);
+            out[i] = this.values[head];
+        }
+    }
+
+    /**
+     * Add the remaining values of the buffer to the end of the stream.
+     *
+     * @param buffer Values to add. The position is moved to the limit.
+     */
+    public void pushAll(IntBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            push(buffer.get());
+        }
+    }
+
+    /**
+     * Minimum of the last w values in constant time.
+     *
+     * @return The minimum value in the window.
+     */
+    public int min() {
+        if (count == 0) {
+            throw new NoSuchElementException("no values pushed");
+        }
+        return values[head];
+    }
+
+    /**
+     * Total number of values pushed.
+     *
+     * @return The number of values pushed.
+     */
+    public long pushed() {
+        return pushed;
+    }
+}
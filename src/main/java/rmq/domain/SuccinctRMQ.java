@@ -0,0 +1,350 @@
+package rmq.domain;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Succinct range minimum query structure that does not keep the array
+ * <p>
+ * The structure stores the tree where the parent of every position is the
+ * next position to the right with a smaller value, as balanced parentheses
+ * in 2n bits. Listed in postorder, the nodes of that tree are the positions
+ * of the array in order, and the leftmost minimum of arr[l..r] is the node
+ * of the leftmost lowest point of the parenthesis depth between the closing
+ * parentheses of l and r. The values are not needed for that, so
+ * {@link #queryIndex(int, int)} works without the array.
+ * </p>
+ * <p>
+ * Closing parentheses are counted with a rank directory of one int per 512
+ * bits and found with a sample of every 4096th one. The lowest point is found
+ * with the minimum depth of every 256 bits, stored as a short relative to
+ * the depth at the start of the surrounding 8192 bits, and a sparse table
+ * over those larger blocks. The partial blocks at the ends are scanned 16
+ * bits at a time with a table of the lowest prefix of every 16 bits, shared
+ * by all instances. Queries take constant time, and the whole structure
+ * needs about 2.4 bits per element.
+ * </p>
+ */
+public class SuccinctRMQ implements RMQ {
+    private static final int RANK_BITS = 9;
+    private static final int BLOCK_BITS = 8;
+    private static final int SUPER_BITS = 13;
+    private static final int SELECT_BITS = 12;
+    private static final int CHUNK = 16;
+    private static final byte[] CHUNK_MIN = new byte[1 << CHUNK];
+    private static final byte[] CHUNK_POS = new byte[1 << CHUNK];
+
+    static {
+        // A set bit is a closing parenthesis, one level up.
+        for (int x = 0; x < 1 << CHUNK; x++) {
+            int depth = 0;
+            int min = Integer.MAX_VALUE;
+            for (int k = 0; k < CHUNK; k++) {
+                depth += ((x >>> k) & 1) == 1 ? -1 : 1;
+                if (depth < min) {
+                    min = depth;
+                    CHUNK_POS[x] = (byte)k;
+                }
+            }
+            CHUNK_MIN[x] = (byte)min;
+        }
+    }
+
+    private final int size;
+    private final int length;
+    private final long[] bits;
+    private final int[] ranks;
+    private final int[] selects;
+    private final short[] blockMins;
+    private final int[] superMins;
+    private final int[] offsets;
+    private final int[] table;
+    private final IntUnaryOperator values;
+
+    /**
+     * Succinct range minimum query structure for given integer array. Only
+     * {@link #queryIndex(int, int)} is supported, since the values are not
+     * kept.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public SuccinctRMQ(int[] arr) {
+        this(arr, null);
+    }
+
+    /**
+     * Succinct range minimum query structure for given integer array, where
+     * {@link #query(int, int)} reads the value at the index of the minimum
+     * from the given source, for example a memory mapped file.
+     *
+     * @param arr The input array to compute the range minima for.
+     * @param values Value of each index, or null to only support queryIndex.
+     */
+    public SuccinctRMQ(int[] arr, IntUnaryOperator values) {
+        this.size = arr.length;
+        this.values = values;
+        this.length = 2 * size;
+        bits = new long[(length + 63) >> 6];
+        writeParentheses(arr);
+        ranks = new int[(bits.length >> (RANK_BITS - 6)) + 2];
+        for (int w = 0; w < bits.length; w++) {
+            ranks[(w >> (RANK_BITS - 6)) + 1] += Long.bitCount(bits[w]);
+        }
+        for (int s = 1; s < ranks.length; s++) {
+            ranks[s] += ranks[s - 1];
+        }
+        selects = new int[(size + (1 << SELECT_BITS) - 1) >> SELECT_BITS];
+        for (int s = 0, k = 0; k < selects.length; s++) {
+            while (k < selects.length && ranks[s + 1] > k << SELECT_BITS) {
+                selects[k++] = s;
+            }
+        }
+        blockMins = new short[(length + (1 << BLOCK_BITS) - 1) >> BLOCK_BITS];
+        superMins = new int[(length + (1 << SUPER_BITS) - 1) >> SUPER_BITS];
+        for (int s = 0; s < superMins.length; s++) {
+            superMins[s] = Integer.MAX_VALUE;
+        }
+        for (int b = 0; b < blockMins.length; b++) {
+            int start = b << BLOCK_BITS;
+            int end = Math.min(start + (1 << BLOCK_BITS), length) - 1;
+            int min = (int)(scan(start, end, excessBefore(start)) >> 32);
+            int s = b >> (SUPER_BITS - BLOCK_BITS);
+            blockMins[b] = (short)(min - superStart(s));
+            superMins[s] = Math.min(superMins[s], min);
+        }
+        offsets = SparseTables.offsets(superMins.length);
+        table = new int[SparseTables.length(superMins.length)];
+        for (int s = 0; s < superMins.length; s++) {
+            table[s] = s;
+        }
+        for (int k = 1; k < offsets.length; k++) {
+            int prev = offsets[k - 1];
+            int half = 1 << (k - 1);
+            int count = superMins.length - (1 << k) + 1;
+            for (int i = 0; i < count; i++) {
+                table[offsets[k] + i] = leftmost(table[prev + i], table[prev + i + half]);
+            }
+        }
+    }
+
+    /**
+     * Write the tree as balanced parentheses from right to left, keeping the
+     * nodes whose subtree is still open on a stack.
+     */
+    private void writeParentheses(int[] arr) {
+        int[] stack = new int[size];
+        int top = 0;
+        int pos = length - 1;
+        for (int i = size - 1; i >= 0; i--) {
+            while (top > 0 && arr[stack[top - 1]] >= arr[i]) {
+                top--;
+                pos--;
+            }
+            bits[pos >> 6] |= 1L << pos;
+            pos--;
+            stack[top++] = i;
+        }
+    }
+
+    /**
+     * Of two large blocks, the one with the lower minimum, or a on ties.
+     */
+    private int leftmost(int a, int b) {
+        return superMins[b] < superMins[a] ? b : a;
+    }
+
+    /**
+     * Number of closing parentheses in bits[0..pos).
+     */
+    private int rank(int pos) {
+        int res = ranks[pos >> RANK_BITS];
+        for (int w = (pos >> RANK_BITS) << (RANK_BITS - 6); w < pos >> 6; w++) {
+            res += Long.bitCount(bits[w]);
+        }
+        if ((pos & 63) != 0) {
+            res += Long.bitCount(bits[pos >> 6] & ((1L << pos) - 1));
+        }
+        return res;
+    }
+
+    /**
+     * Position of the closing parenthesis of node k.
+     */
+    private int select(int k) {
+        int lo = selects[k >> SELECT_BITS];
+        int hi = (k >> SELECT_BITS) + 1 < selects.length
+                ? selects[(k >> SELECT_BITS) + 1] : ranks.length - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (ranks[mid] <= k) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int r = k - ranks[lo];
+        int w = lo << (RANK_BITS - 6);
+        for (int c = Long.bitCount(bits[w]); r >= c; c = Long.bitCount(bits[w])) {
+            r -= c;
+            w++;
+        }
+        long word = bits[w];
+        int pos = 0;
+        for (int c = Long.bitCount(word & 0xFF); r >= c; c = Long.bitCount(word >>> pos & 0xFF)) {
+            r -= c;
+            pos += 8;
+        }
+        word >>>= pos;
+        for (; r > 0; r--) {
+            word &= word - 1;
+        }
+        return (w << 6) + pos + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Parenthesis depth before position pos.
+     */
+    private int excessBefore(int pos) {
+        return pos - 2 * rank(pos);
+    }
+
+    /**
+     * Parenthesis depth at the start of large block s.
+     */
+    private int superStart(int s) {
+        int pos = s << SUPER_BITS;
+        return pos - 2 * ranks[pos >> RANK_BITS];
+    }
+
+    /**
+     * Leftmost lowest depth after the parentheses at positions l..r, where
+     * the depth before l is given. Returns the depth in the high and the
+     * position in the low 32 bits.
+     */
+    private long scan(int l, int r, int excess) {
+        int min = Integer.MAX_VALUE;
+        int minPos = l;
+        for (int pos = l; pos <= r;) {
+            int len = Math.min(Math.min(CHUNK, r - pos + 1), 64 - (pos & 63));
+            // Positions past r are taken as opening parentheses, which never
+            // give a new minimum.
+            int chunk = (int)(bits[pos >> 6] >>> pos) & ((1 << len) - 1);
+            if (excess + CHUNK_MIN[chunk] < min) {
+                min = excess + CHUNK_MIN[chunk];
+                minPos = pos + CHUNK_POS[chunk];
+            }
+            excess += len - 2 * Integer.bitCount(chunk);
+            pos += len;
+        }
+        return (long)min << 32 | minPos;
+    }
+
+    /**
+     * Leftmost block of blocks b1..b2 in the same large block with the
+     * lowest minimum.
+     */
+    private int lowestBlock(int b1, int b2) {
+        int res = b1;
+        for (int b = b1 + 1; b <= b2; b++) {
+            if (blockMins[b] < blockMins[res]) {
+                res = b;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Leftmost block of blocks b1..b2 with the lowest minimum.
+     */
+    private int lowestBlockAcross(int b1, int b2) {
+        int s1 = b1 >> (SUPER_BITS - BLOCK_BITS);
+        int s2 = b2 >> (SUPER_BITS - BLOCK_BITS);
+        if (s1 == s2) {
+            return lowestBlock(b1, b2);
+        }
+        int res = lowestBlock(b1, ((s1 + 1) << (SUPER_BITS - BLOCK_BITS)) - 1);
+        int resMin = superStart(s1) + blockMins[res];
+        if (s1 + 1 < s2) {
+            int k = SparseTables.log2(s2 - s1 - 1);
+            int s = leftmost(table[offsets[k] + s1 + 1], table[offsets[k] + s2 - (1 << k)]);
+            if (superMins[s] < resMin) {
+                int first = s << (SUPER_BITS - BLOCK_BITS);
+                res = lowestBlock(first, first + (1 << (SUPER_BITS - BLOCK_BITS)) - 1);
+                resMin = superMins[s];
+            }
+        }
+        int right = lowestBlock(s2 << (SUPER_BITS - BLOCK_BITS), b2);
+        return superStart(s2) + blockMins[right] < resMin ? right : res;
+    }
+
+    /**
+     * Position of the leftmost lowest depth after the parentheses l..r.
+     */
+    private int lowest(int l, int r) {
+        int bl = l >> BLOCK_BITS;
+        int br = r >> BLOCK_BITS;
+        if (bl == br) {
+            return (int)scan(l, r, excessBefore(l));
+        }
+        long res = scan(l, ((bl + 1) << BLOCK_BITS) - 1, excessBefore(l));
+        if (bl + 1 < br) {
+            int b = lowestBlockAcross(bl + 1, br - 1);
+            int min = superStart(b >> (SUPER_BITS - BLOCK_BITS)) + blockMins[b];
+            if (min < (int)(res >> 32)) {
+                int start = b << BLOCK_BITS;
+                res = scan(start, start + (1 << BLOCK_BITS) - 1, excessBefore(start));
+            }
+        }
+        long right = scan(br << BLOCK_BITS, r, excessBefore(br << BLOCK_BITS));
+        return (int)(right >> 32) < (int)(res >> 32) ? (int)right : (int)res;
+    }
+
+    /**
+     * Compute the minimum value in arr[l..r] in constant time, reading it
+     * from the value source given to the constructor.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     * @throws UnsupportedOperationException If no value source was given.
+     */
+    @Override
+    public int query(int l, int r) {
+        if (values == null) {
+            throw new UnsupportedOperationException("values are not kept, use queryIndex");
+        }
+        return values.applyAsInt(queryIndex(l, r));
+    }
+
+    /**
+     * Compute the index of the minimum value in arr[l..r] in constant time
+     * without the array. If the minimum occurs more than once, the leftmost
+     * index is returned.
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The leftmost index of the minimum value in arr[l..r].
+     */
+    @Override
+    public int queryIndex(int l, int r) {
+        Ranges.check(size, l, r);
+        if (l == r) {
+            return l;
+        }
+        return rank(lowest(select(l), select(r)));
+    }
+
+    /**
+     * Memory used by the structure.
+     *
+     * @return The size of all arrays of the structure in bits.
+     */
+    public long sizeInBits() {
+        return 64L * bits.length + 32L * (ranks.length + selects.length + superMins.length
+                + offsets.length + table.length) + 16L * blockMins.length;
+    }
+
+    @Override
+    public String toString() {
+        return "SuccinctRMQ[size = " + size + ", bits = " + sizeInBits() + "]";
+    }
+}
@@ -0,0 +1,15 @@
+package rmq.domain;
+
+/**
+ * Range minimum query structure whose values can be changed after it is
+ * built.
+ */
+public interface UpdatableRMQ extends RMQ {
+    /**
+     * Update given value in arr.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    void update(int idx, int value);
+}
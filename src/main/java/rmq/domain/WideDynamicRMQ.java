@@ -0,0 +1,176 @@
+package rmq.domain;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic range minimum query structure with 16 children per node
+ * <p>
+ * A segment tree like {@link DynamicRMQ}, but each internal node has 16
+ * children that are stored next to each other, so that the children of a
+ * node fill a single 64 byte cache line. The tree is only log16 n levels
+ * high instead of log2 n, so at large n queries and updates touch about a
+ * quarter of the cache lines. Queries scan at most 15 values at both ends of
+ * each level and take O(log n) time, and the structure uses O(n) space.
+ * </p>
+ * <p>
+ * The levels are stored bottom up in a single array, each padded to a
+ * multiple of 16 with Integer.MAX_VALUE. Java does not align arrays to cache
+ * lines, so a group of children may still be split between two lines.
+ * </p>
+ */
+public class WideDynamicRMQ implements UpdatableRMQ {
+    private static final int BITS = 4;
+    private static final int WIDTH = 1 << BITS;
+
+    private final int size;
+    private final int[] offsets;
+    private final int[] tree;
+    private final int[] prefix;
+    private final int[] suffix;
+
+    /**
+     * Total length of the padded levels for an array of the given size,
+     * which may be too large for an array.
+     */
+    static long treeLength(int size) {
+        long total = 0;
+        long len = Math.max(1, size);
+        do {
+            long padded = (len + WIDTH - 1) & -WIDTH;
+            total += padded;
+            len = padded >> BITS;
+        } while (len > 1);
+        return total;
+    }
+
+    /**
+     * Dynamic range minimum query structure for given integer array.
+     *
+     * @param arr The input array to compute the range minima for.
+     */
+    public WideDynamicRMQ(int[] arr) {
+        this.size = arr.length;
+        int levels = 1;
+        for (long len = Math.max(1, size); len > WIDTH; len = (len + WIDTH - 1) >> BITS) {
+            levels++;
+        }
+        offsets = new int[levels + 1];
+        long len = Math.max(1, size);
+        for (int h = 0; h < levels; h++) {
+            long padded = (len + WIDTH - 1) & -WIDTH;
+            if (offsets[h] + padded > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("array too large: " + size);
+            }
+            offsets[h + 1] = offsets[h] + (int)padded;
+            len = padded >> BITS;
+        }
+        tree = new int[offsets[levels]];
+        prefix = new int[tree.length];
+        suffix = new int[tree.length];
+        Arrays.fill(tree, Integer.MAX_VALUE);
+        System.arraycopy(arr, 0, tree, 0, size);
+        for (int h = 0; h < levels; h++) {
+            int parent = offsets[h + 1];
+            for (int from = offsets[h]; from < offsets[h + 1]; from += WIDTH) {
+                fillGroup(from);
+                if (h + 1 < levels) {
+                    tree[parent++] = prefix[from + WIDTH - 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute the prefix and suffix minima of the group starting at from.
+     */
+    private void fillGroup(int from) {
+        int min = Integer.MAX_VALUE;
+        for (int i = from; i < from + WIDTH; i++) {
+            min = tree[i] < min ? tree[i] : min;
+            prefix[i] = min;
+        }
+        min = Integer.MAX_VALUE;
+        for (int i = from + WIDTH - 1; i >= from; i--) {
+            min = tree[i] < min ? tree[i] : min;
+            suffix[i] = min;
+        }
+    }
+
+    /**
+     * Minimum of tree[from..to].
+     */
+    private int minOf(int from, int to) {
+        int res = tree[from];
+        for (int i = from + 1; i <= to; i++) {
+            int v = tree[i];
+            res = v < res ? v : res;
+        }
+        return res;
+    }
+
+    /**
+     * Update given value in arr. Stops as soon as a parent does not change.
+     *
+     * @param idx Index of value to update.
+     * @param value Value to set.
+     */
+    @Override
+    public void update(int idx, int value) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("idx: " + idx);
+        }
+        tree[idx] = value;
+        for (int h = 0; h < offsets.length - 1; h++) {
+            int group = offsets[h] + (idx & -WIDTH);
+            fillGroup(group);
+            if (h + 2 == offsets.length) {
+                return;
+            }
+            idx >>= BITS;
+            int parent = offsets[h + 1] + idx;
+            int min = prefix[group + WIDTH - 1];
+            if (tree[parent] == min) {
+                return;
+            }
+            tree[parent] = min;
+        }
+    }
+
+    /**
+     * Compute the minimum  value in arr[l..r] in O(log n) time
+     *
+     * @param l Left limit of the query range (inclusive).
+     * @param r Right limit of the query range (inclusive).
+     * @return The minimum value in arr[l..r].
+     */
+    @Override
+    public int query(int l, int r) {
+        Ranges.check(size, l, r);
+        int res = Integer.MAX_VALUE;
+        for (int h = 0; l <= r; h++) {
+            int base = offsets[h];
+            if (l >> BITS == r >> BITS) {
+                int v = minOf(base + l, base + r);
+                return v < res ? v : res;
+            }
+            // The partial groups at both ends are covered by the suffix and
+            // prefix minima, the whole groups between them by the next level.
+            int lo = suffix[base + l];
+            int hi = prefix[base + r];
+            res = Math.min(res, Math.min(lo, hi));
+            l = (l >> BITS) + 1;
+            r = (r >> BITS) - 1;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int h = 0; h < offsets.length - 1; h++) {
+            sb.append("\n");
+            sb.append(Arrays.toString(Arrays.copyOfRange(tree, offsets[h], offsets[h + 1])));
+        }
+        return sb.toString();
+    }
+}
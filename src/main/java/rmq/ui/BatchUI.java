@@ -0,0 +1,218 @@
+package rmq.ui;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import rmq.domain.BlockScanRMQ;
+import rmq.domain.DynamicRMQ;
+import rmq.domain.FlatStaticRMQ;
+import rmq.domain.LinearRMQ;
+import rmq.domain.RMQ;
+import rmq.domain.RMQs;
+import rmq.domain.StaticRMQ;
+import rmq.domain.SuccinctRMQ;
+import rmq.domain.WideDynamicRMQ;
+
+/**
+ * Non-interactive mode answering a file of queries over an array file.
+ * <p>
+ * Both files are memory mapped and either little endian 32 bit integers or
+ * decimal text, and the query file holds the pairs l r one after another.
+ * The queries are answered in batches with queryAll and the minima are
+ * written in the same format to the output file or standard output. The
+ * times of reading, building and querying are reported at the end.
+ * </p>
+ */
+public class BatchUI {
+    static final String USAGE = "usage: rmq --array FILE --queries FILE [--engine NAME] "
+            + "[--format binary|text] [--output FILE] [--batch SIZE]";
+    private static final List<String> OPTIONS = Arrays.asList("array", "queries", "engine",
+            "format", "output", "batch");
+    private static final Map<String, Function<int[], RMQ>> ENGINES = new LinkedHashMap<>();
+
+    static {
+        ENGINES.put("auto", RMQs::build);
+        ENGINES.put("static", StaticRMQ::new);
+        ENGINES.put("flat-static", FlatStaticRMQ::new);
+        ENGINES.put("linear", LinearRMQ::new);
+        ENGINES.put("dynamic", DynamicRMQ::new);
+        ENGINES.put("wide-dynamic", WideDynamicRMQ::new);
+        ENGINES.put("block-scan", BlockScanRMQ::new);
+        ENGINES.put("succinct", a -> new SuccinctRMQ(a, i -> a[i]));
+    }
+
+    private final PrintStream report;
+
+    /**
+     * Batch mode writing the report and errors to standard error.
+     */
+    public BatchUI() {
+        this(System.err);
+    }
+
+    /**
+     * Batch mode writing the report and errors to the given stream.
+     *
+     * @param report Stream for the report.
+     */
+    public BatchUI(PrintStream report) {
+        this.report = report;
+    }
+
+    /**
+     * Run with the given command line arguments.
+     *
+     * @param args The command line arguments.
+     * @return Exit status: 0 on success, 1 if reading, querying or writing
+     *     failed and 2 for invalid arguments.
+     */
+    public int run(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        options.put("engine", "auto");
+        options.put("format", "binary");
+        options.put("batch", "65536");
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--help")) {
+                report.println(USAGE);
+                report.println("engines: " + String.join(", ", ENGINES.keySet()));
+                return 0;
+            }
+            String name = args[i].startsWith("--") ? args[i].substring(2) : "";
+            if (!OPTIONS.contains(name)) {
+                return usage("unknown option " + args[i]);
+            }
+            if (i + 1 == args.length) {
+                return usage("missing value for " + args[i]);
+            }
+            options.put(name, args[++i]);
+        }
+        if (!options.containsKey("array") || !options.containsKey("queries")) {
+            return usage("--array and --queries are required");
+        }
+        Function<int[], RMQ> engine = ENGINES.get(options.get("engine"));
+        if (engine == null) {
+            return usage("unknown engine " + options.get("engine") + ", engines are "
+                    + String.join(", ", ENGINES.keySet()));
+        }
+        String format = options.get("format");
+        if (!format.equals("binary") && !format.equals("text")) {
+            return usage("unknown format " + format);
+        }
+        int batch;
+        try {
+            batch = Integer.parseInt(options.get("batch"));
+        } catch (NumberFormatException e) {
+            batch = 0;
+        }
+        if (batch <= 0) {
+            return usage("batch size needs to be a positive integer");
+        }
+        try {
+            process(options, engine, format.equals("text"), batch);
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            report.println("error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private int usage(String message) {
+        report.println("error: " + message);
+        report.println(USAGE);
+        return 2;
+    }
+
+    private void process(Map<String, String> options, Function<int[], RMQ> engine, boolean text,
+            int batch) throws IOException {
+        final long start = System.nanoTime();
+        int[] arr = read(Paths.get(options.get("array")), text);
+        int[] queries = read(Paths.get(options.get("queries")), text);
+        if (queries.length % 2 != 0) {
+            throw new IOException("odd number of values in the query file: "
+                    + options.get("queries"));
+        }
+        if (options.get("engine").equals("auto")) {
+            report.println(autoEngine(arr.length));
+        }
+        long read = System.nanoTime();
+        RMQ rmq = engine.apply(arr);
+        long built = System.nanoTime();
+        int count = queries.length / 2;
+        String output = options.get("output");
+        if (output == null) {
+            answer(rmq, queries, batch, new ResultWriter(Channels.newChannel(System.out), text));
+            System.out.flush();
+        } else {
+            try (FileChannel ch = FileChannel.open(Paths.get(output), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                answer(rmq, queries, batch, new ResultWriter(ch, text));
+            }
+        }
+        long end = System.nanoTime();
+        report.println("Read " + arr.length + " values and " + count + " queries in "
+                + millis(read - start));
+        report.println("Built " + options.get("engine") + " engine in " + millis(built - read));
+        report.println("Answered " + count + " queries in " + millis(end - built) + ", "
+                + String.format(Locale.ROOT, "%.2f", count * 1000.0 / Math.max(1, end - built))
+                + " M queries/s");
+        report.println("Total time " + millis(end - start));
+    }
+
+    /**
+     * Describe the engine that "auto" builds for an array of the given size.
+     */
+    static String autoEngine(int size) {
+        return "Engine for " + size + " values: " + RMQs.decide(size, new RMQs.Hints());
+    }
+
+    private static int[] read(Path file, boolean text) throws IOException {
+        return text ? IntFiles.readText(file) : IntFiles.readBinary(file);
+    }
+
+    /**
+     * Answer the queries in batches of the given size and write the minima.
+     */
+    private static void answer(RMQ rmq, int[] queries, int batch, ResultWriter writer)
+            throws IOException {
+        int count = queries.length / 2;
+        int[] l = new int[Math.min(batch, count)];
+        int[] r = new int[l.length];
+        int[] out = new int[l.length];
+        for (int first = 0; first < count; first += batch) {
+            int k = Math.min(batch, count - first);
+            if (k < l.length) {
+                l = new int[k];
+                r = new int[k];
+                out = new int[k];
+            }
+            for (int i = 0; i < k; i++) {
+                l[i] = queries[2 * (first + i)];
+                r[i] = queries[2 * (first + i) + 1];
+            }
+            try {
+                rmq.queryAll(l, r, out);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("invalid query in the batch starting at query "
+                        + first + ": " + e.getMessage(), e);
+            }
+            writer.write(out, k);
+        }
+        writer.flush();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1000000.0);
+    }
+}
@@ -4,9 +4,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.Scanner;
-import rmq.domain.DynamicRMQ;
 import rmq.domain.RMQ;
-import rmq.domain.StaticRMQ;
+import rmq.domain.RMQs;
+import rmq.domain.UpdatableRMQ;
 import rmq.util.Tester;
 
 public class ConsoleUI {
@@ -45,9 +45,9 @@ public class ConsoleUI {
             arr = getNumbers();
         }
         if (stat) {
-            doStatic(new StaticRMQ(arr), arr);
+            doStatic(RMQs.build(arr), arr);
         } else {
-            doDynamic(new DynamicRMQ(arr), arr);
+            doDynamic(RMQs.build(arr, new RMQs.Hints().updatesPerQuery(1)), arr);
         }
     }
 
@@ -68,7 +68,7 @@ public class ConsoleUI {
         }
     }
 
-    private void doDynamic(DynamicRMQ rmq, int[] arr) {
+    private void doDynamic(UpdatableRMQ rmq, int[] arr) {
         String sel = "s";
         while (!sel.isEmpty()) {
             System.out.println("Edit values (e) or make queries (q).\nTerminate with empty input.");
@@ -81,7 +81,7 @@ public class ConsoleUI {
         }
     }
 
-    private void update(DynamicRMQ rmq, int[] arr) {
+    private void update(UpdatableRMQ rmq, int[] arr) {
         System.out.println("Update values. End with invalid input.");
         System.out.println(Arrays.toString(arr));
         while (true) {
@@ -0,0 +1,148 @@
+package rmq.ui;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reading int arrays from files through memory mapping.
+ * <p>
+ * Files are mapped in chunks of at most 1 GB, so files larger than the
+ * 2 GB limit of a single mapping can be read as long as the values fit in
+ * an array.
+ * </p>
+ */
+final class IntFiles {
+    private static final long CHUNK = 1L << 30;
+
+    private IntFiles() {
+    }
+
+    /**
+     * Read a file of little endian 32 bit integers.
+     */
+    static int[] readBinary(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size % 4 != 0) {
+                throw new IOException("length " + size + " is not a multiple of 4: " + file);
+            }
+            if (size / 4 > Integer.MAX_VALUE - 8) {
+                throw new IOException("too many values: " + file);
+            }
+            int[] values = new int[(int)(size / 4)];
+            for (long start = 0; start < size; start += CHUNK) {
+                long length = Math.min(CHUNK, size - start);
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, start, length);
+                map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer()
+                        .get(values, (int)(start / 4), (int)(length / 4));
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Read a file of decimal integers separated by whitespace or commas.
+     */
+    static int[] readText(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            Parser parser = new Parser(file, (int)Math.min(1 << 16, size / 2 + 1));
+            byte[] bytes = new byte[1 << 16];
+            for (long start = 0; start < size; start += CHUNK) {
+                long length = Math.min(CHUNK, size - start);
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, start, length);
+                while (map.hasRemaining()) {
+                    long offset = start + map.position();
+                    int n = Math.min(bytes.length, map.remaining());
+                    map.get(bytes, 0, n);
+                    parser.parse(bytes, n, offset);
+                }
+            }
+            return parser.finish(size);
+        }
+    }
+
+    /**
+     * Parsing state that is kept between the mapped chunks of a file.
+     */
+    private static final class Parser {
+        private final Path file;
+        private int[] values;
+        private int count;
+        private long value;
+        private boolean negative;
+        private boolean digits;
+
+        Parser(Path file, int capacity) {
+            this.file = file;
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Parse bytes[0..n), which start at the given offset of the file. The
+         * state is kept in locals while parsing, and in the fields between
+         * calls.
+         */
+        void parse(byte[] bytes, int n, long offset) throws IOException {
+            long v = value;
+            boolean neg = negative;
+            boolean dig = digits;
+            for (int i = 0; i < n; i++) {
+                byte b = bytes[i];
+                if (b >= '0' && b <= '9') {
+                    v = v * 10 + (b - '0');
+                    if (v > (neg ? -(long)Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                        throw new IOException("value out of range at byte " + (offset + i) + ": "
+                                + file);
+                    }
+                    dig = true;
+                } else if (b == '-' && !neg && !dig) {
+                    neg = true;
+                } else if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == ',') {
+                    if (dig) {
+                        add((int)(neg ? -v : v));
+                    } else if (neg) {
+                        throw new IOException("missing digits at byte " + (offset + i) + ": "
+                                + file);
+                    }
+                    v = 0;
+                    neg = false;
+                    dig = false;
+                } else {
+                    throw new IOException("unexpected character at byte " + (offset + i) + ": "
+                            + file);
+                }
+            }
+            value = v;
+            negative = neg;
+            digits = dig;
+        }
+
+        private void add(int v) throws IOException {
+            if (count == values.length) {
+                if (count == Integer.MAX_VALUE - 8) {
+                    throw new IOException("too many values: " + file);
+                }
+                values = Arrays.copyOf(values, (int)Math.min(2L * count, Integer.MAX_VALUE - 8));
+            }
+            values[count++] = v;
+        }
+
+        /**
+         * End the last number and return all values.
+         */
+        int[] finish(long size) throws IOException {
+            if (digits) {
+                add((int)(negative ? -value : value));
+            } else if (negative) {
+                throw new IOException("missing digits at byte " + size + ": " + file);
+            }
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
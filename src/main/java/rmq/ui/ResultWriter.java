@@ -0,0 +1,69 @@
+package rmq.ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered writing of int results to a channel, either as little endian
+ * 32 bit integers or as decimal text with one value per line. Text is
+ * formatted directly into the buffer without creating strings.
+ */
+final class ResultWriter {
+    private final WritableByteChannel channel;
+    private final boolean text;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] digits = new byte[10];
+
+    ResultWriter(WritableByteChannel channel, boolean text) {
+        this.channel = channel;
+        this.text = text;
+    }
+
+    /**
+     * Write values[0..count).
+     */
+    void write(int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            // A text value takes at most 12 bytes with the sign and newline.
+            if (buffer.remaining() < 12) {
+                flush();
+            }
+            if (text) {
+                putText(values[i]);
+            } else {
+                buffer.putInt(values[i]);
+            }
+        }
+    }
+
+    private void putText(int value) {
+        long v = value;
+        if (v < 0) {
+            buffer.put((byte)'-');
+            v = -v;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (byte)('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        while (n > 0) {
+            buffer.put(digits[--n]);
+        }
+        buffer.put((byte)'\n');
+    }
+
+    /**
+     * Write everything buffered to the channel.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
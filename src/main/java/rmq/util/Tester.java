@@ -1,20 +1,55 @@
 package rmq.util;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import rmq.domain.DynamicMatrixRMQ;
 import rmq.domain.DynamicRMQ;
+import rmq.domain.FlatStaticRMQ;
+import rmq.domain.LinearRMQ;
+import rmq.domain.OfflineRMQ;
+import rmq.domain.RMQ;
+import rmq.domain.StaticMatrixRMQ;
 import rmq.domain.StaticRMQ;
+import rmq.domain.StreamingWindowMin;
+import rmq.domain.SuccinctRMQ;
+import rmq.domain.WideDynamicRMQ;
 
 public class Tester {
     private final int[] nums = {10, 100, 1000, 10000, 100000, 1000000, 10000000};
     private final int numberOfRuns = nums.length;
-    private final double[] dynamicInits = new double[numberOfRuns];
-    private final double[] staticInits = new double[numberOfRuns];
-    private final double[] dynamicQueries = new double[numberOfRuns];
-    private final double[] dynamicStd = new double[numberOfRuns];
-    private final double[] staticQueries = new double[numberOfRuns];
-    private final double[] staticStd = new double[numberOfRuns];
+    private final String[] names = {"Dynamic", "Static", "Flat static", "Linear", "Wide dynamic",
+        "Succinct"};
+    private final List<Function<int[], RMQ>> builders = Arrays.asList(
+            DynamicRMQ::new, StaticRMQ::new, FlatStaticRMQ::new, LinearRMQ::new,
+            WideDynamicRMQ::new, a -> new SuccinctRMQ(a, i -> a[i]));
+    private final double[][] inits = new double[names.length][numberOfRuns];
+    private final double[][] queries = new double[names.length][numberOfRuns];
+    private final double[][] stds = new double[names.length][numberOfRuns];
+    private final double[][] batches = new double[names.length][numberOfRuns];
+    private final double[][] memory = new double[names.length][numberOfRuns];
+    private final double[] offlineBatches = new double[numberOfRuns];
+    private final double[] staticBuildBatches = new double[numberOfRuns];
+    private final int[] threads = threadCounts(Runtime.getRuntime().availableProcessors());
+    private final double[][] staticParallelInits = new double[threads.length][numberOfRuns];
+    private final double[][] dynamicParallelInits = new double[threads.length][numberOfRuns];
+    private final double[] loopedUpdates = new double[numberOfRuns];
+    private final double[] batchUpdates = new double[numberOfRuns];
+    private final double[] loopedRangeUpdates = new double[numberOfRuns];
+    private final double[] rangeUpdates = new double[numberOfRuns];
+    private final double[] windowThroughput = new double[numberOfRuns];
+    private final double[] dynamicWindowThroughput = new double[numberOfRuns];
+    private final int[] layoutNums = {1000, 10000, 100000, 1000000, 10000000, 100000000};
+    private final double[][] layoutQueries = new double[2][layoutNums.length];
+    private final double[][] layoutUpdates = new double[2][layoutNums.length];
+    private final int[] matrixSides = {10, 30, 100, 300, 1000};
+    private final double[][] matrixQueries = new double[3][matrixSides.length];
+    private final double[] matrixUpdates = new double[matrixSides.length];
     private final Random rand;
+    private RMQ retained;
 
     public Tester(Random rand) {
         this.rand = rand;
@@ -23,36 +58,26 @@ public class Tester {
     public Tester() {
         this(new Random());
     }
-    
+
+    /**
+     * Powers of two up to the number of processors, and the number of
+     * processors itself.
+     */
+    private static int[] threadCounts(int processors) {
+        int count = 32 - Integer.numberOfLeadingZeros(processors);
+        int[] ret = new int[Integer.bitCount(processors) == 1 ? count : count + 1];
+        for (int i = 0; i < count; i++) {
+            ret[i] = 1 << i;
+        }
+        ret[ret.length - 1] = processors;
+        return ret;
+    }
+
     public void run() {
         int n = 100;
         for (int run = 0; run < nums.length; run++) {
             int num = nums[run];
             int[] arr = new int[num];
-            long[] times = new long[n];
-            long t;
-            
-            // Measure median preprocessing time for dynamic RMQ.
-            DynamicRMQ dRMQ = new DynamicRMQ(arr);
-            for (int i = 0; i < n; i++) {
-                t = System.nanoTime();
-                dRMQ = new DynamicRMQ(arr);
-                t = System.nanoTime() - t;
-                times[i] = t;
-            }
-            Arrays.sort(times);
-            dynamicInits[run] = times[times.length / 2] / 1000000.0;
-            
-            // Measure median preprocessing time for static RMQ.
-            StaticRMQ sRMQ = new StaticRMQ(arr);
-            for (int i = 0; i < n; i++) {
-                t = System.nanoTime();
-                sRMQ = new StaticRMQ(arr);
-                t = System.nanoTime() - t;
-                times[i] = t;
-            }
-            Arrays.sort(times);
-            staticInits[run] = times[times.length / 2] / 1000000.0;
             
             //generate queries
             int[] lArr = new int[n * 100];
@@ -62,66 +87,389 @@ public class Tester {
                 rArr[i] = lArr[i] + rand.nextInt(num - lArr[i]);
             }
             
-            //Measure lookup for dynamic RMQ
-            times = new long[lArr.length];
-            for (int i = 0; i < lArr.length; i++) {
-                long tAcc = 0;
-                int l = lArr[i];
-                int r = rArr[i];
-                for (int j = 0; j < n; j++) {
-                    t = System.nanoTime();
-                    dRMQ.query(l, r);
-                    tAcc += System.nanoTime() - t;
-                }
-                times[i] = tAcc / n;
+            for (int s = 0; s < names.length; s++) {
+                RMQ rmq = measureInit(builders.get(s), arr, n, inits[s], run);
+                measureQueries(rmq, lArr, rArr, n, s, run);
+                measureBatch(rmq, lArr, rArr, n, s, run);
+                memory[s][run] = measureMemory(builders.get(s), arr);
             }
-            dynamicQueries[run] = getAverage(times);
-            dynamicStd[run] = getStd(times, dynamicQueries[run]);
             
-            //Measure lookup for static RMQ
-            times = new long[lArr.length];
-            for (int i = 0; i < lArr.length; i++) {
-                long tAcc = 0;
-                int l = lArr[i];
-                int r = rArr[i];
-                for (int j = 0; j < n; j++) {
-                    t = System.nanoTime();
-                    sRMQ.query(l, r);
-                    tAcc += System.nanoTime() - t;
-                }
-                times[i] = tAcc / n;
+            // Measure how parallel preprocessing scales with the thread count.
+            for (int i = 0; i < threads.length; i++) {
+                ForkJoinPool pool = new ForkJoinPool(threads[i]);
+                measureInit(a -> new StaticRMQ(a, pool), arr, n, staticParallelInits[i], run);
+                measureInit(a -> new DynamicRMQ(a, pool), arr, n, dynamicParallelInits[i], run);
+                pool.shutdown();
             }
-            staticQueries[run] = getAverage(times);
-            staticStd[run] = getStd(times, staticQueries[run]);
+            
+            measureOffline(arr, lArr, rArr, n, run);
+            measureUpdates(arr, lArr.length, n, run);
+            measureWindow(num, n, run);
             
             System.out.println("Ran " + num);
         }
+        
+        for (int run = 0; run < layoutNums.length; run++) {
+            measureLayouts(layoutNums[run], n, run);
+            System.out.println("Ran layouts for " + layoutNums[run]);
+        }
+        
+        for (int run = 0; run < matrixSides.length; run++) {
+            measureMatrices(matrixSides[run], n, run);
+            System.out.println("Ran matrices for " + matrixSides[run]);
+        }
+    }
+
+    /**
+     * Measure mean time in nanoseconds of a random query and a random update
+     * in the binary and the 16-ary segment tree. Sizes that do not fit in the
+     * heap are reported as NaN.
+     */
+    private void measureLayouts(int num, int n, int run) {
+        int k = 10000;
+        int[] lefts = new int[k];
+        int[] rights = new int[k];
+        int[] values = new int[k];
+        for (int i = 0; i < k; i++) {
+            lefts[i] = rand.nextInt(num);
+            rights[i] = lefts[i] + rand.nextInt(num - lefts[i]);
+            values[i] = rand.nextInt();
+        }
+        for (int i = 0; i < 2; i++) {
+            layoutQueries[i][run] = Double.NaN;
+            layoutUpdates[i][run] = Double.NaN;
+        }
+        try {
+            int[] arr = new int[num];
+            for (int i = 0; i < num; i++) {
+                arr[i] = rand.nextInt();
+            }
+            DynamicRMQ binary = new DynamicRMQ(arr);
+            layoutQueries[0][run] = measureEach(i -> binary.query(lefts[i], rights[i]), k, n);
+            layoutUpdates[0][run] = measureEach(i -> binary.update(lefts[i], values[i]), k, n);
+            WideDynamicRMQ wide = new WideDynamicRMQ(arr);
+            layoutQueries[1][run] = measureEach(i -> wide.query(lefts[i], rights[i]), k, n);
+            layoutUpdates[1][run] = measureEach(i -> wide.update(lefts[i], values[i]), k, n);
+        } catch (OutOfMemoryError e) {
+            System.out.println("Not enough memory for " + num + " elements");
+        }
+    }
+
+    /**
+     * Measure mean time in nanoseconds of a random rectangle query over a
+     * side by side matrix with a static structure per row, the static matrix
+     * structure and the dynamic matrix structure, and of a random update of
+     * the dynamic matrix structure. Sizes that do not fit in the heap are
+     * reported as NaN.
+     */
+    private void measureMatrices(int side, int n, int run) {
+        int k = 10000;
+        int[] r1 = new int[k];
+        int[] c1 = new int[k];
+        int[] r2 = new int[k];
+        int[] c2 = new int[k];
+        int[] values = new int[k];
+        for (int i = 0; i < k; i++) {
+            r1[i] = rand.nextInt(side);
+            r2[i] = r1[i] + rand.nextInt(side - r1[i]);
+            c1[i] = rand.nextInt(side);
+            c2[i] = c1[i] + rand.nextInt(side - c1[i]);
+            values[i] = rand.nextInt();
+        }
+        for (int i = 0; i < matrixQueries.length; i++) {
+            matrixQueries[i][run] = Double.NaN;
+        }
+        matrixUpdates[run] = Double.NaN;
+        try {
+            int[][] matrix = new int[side][side];
+            StaticRMQ[] rows = new StaticRMQ[side];
+            for (int i = 0; i < side; i++) {
+                for (int j = 0; j < side; j++) {
+                    matrix[i][j] = rand.nextInt();
+                }
+                rows[i] = new StaticRMQ(matrix[i]);
+            }
+            matrixQueries[0][run] = measureEach(i -> {
+                int min = Integer.MAX_VALUE;
+                for (int row = r1[i]; row <= r2[i]; row++) {
+                    min = Math.min(min, rows[row].query(c1[i], c2[i]));
+                }
+            }, k, n);
+            DynamicMatrixRMQ dynamic = new DynamicMatrixRMQ(matrix);
+            matrixQueries[2][run] = measureEach(i -> dynamic.query(r1[i], c1[i], r2[i], c2[i]),
+                    k, n);
+            matrixUpdates[run] = measureEach(i -> dynamic.update(r1[i], c1[i], values[i]), k, n);
+            StaticMatrixRMQ stat = new StaticMatrixRMQ(matrix);
+            matrixQueries[1][run] = measureEach(i -> stat.query(r1[i], c1[i], r2[i], c2[i]),
+                    k, n);
+        } catch (OutOfMemoryError e) {
+            System.out.println("Not enough memory for a " + side + " x " + side + " matrix");
+        }
+    }
+
+    /**
+     * Median over n runs of the mean time in nanoseconds of op(0..k-1).
+     */
+    private double measureEach(IntConsumer op, int k, int n) {
+        return measure(() -> {
+            for (int i = 0; i < k; i++) {
+                op.accept(i);
+            }
+        }, n) * 1000000.0 / k;
+    }
+
+    /**
+     * Measure median time in milliseconds of answering all queries offline,
+     * and of building the static structure and answering them with queryAll.
+     */
+    private void measureOffline(int[] arr, int[] lefts, int[] rights, int n, int run) {
+        int[] out = new int[lefts.length];
+        offlineBatches[run] = measure(() -> OfflineRMQ.queryAll(arr, lefts, rights, out), n);
+        Runnable build = () -> new StaticRMQ(arr).queryAll(lefts, rights, out);
+        staticBuildBatches[run] = measure(build, n);
+    }
+
+    /**
+     * Measure median time in milliseconds of updating k values of the dynamic
+     * structure one by one and in bulk, for both random indices and a 
+     * contiguous range.
+     */
+    private void measureUpdates(int[] arr, int k, int n, int run) {
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        int[] idx = new int[k];
+        int[] val = new int[k];
+        for (int i = 0; i < k; i++) {
+            idx[i] = rand.nextInt(arr.length);
+            val[i] = rand.nextInt();
+        }
+        loopedUpdates[run] = measure(() -> {
+            for (int i = 0; i < k; i++) {
+                rmq.update(idx[i], val[i]);
+            }
+        }, n);
+        batchUpdates[run] = measure(() -> rmq.updateAll(idx, val), n);
+        
+        int len = Math.min(k, arr.length);
+        int l = rand.nextInt(arr.length - len + 1);
+        int[] values = Arrays.copyOf(val, len);
+        loopedRangeUpdates[run] = measure(() -> {
+            for (int i = 0; i < len; i++) {
+                rmq.update(l + i, values[i]);
+            }
+        }, n);
+        rangeUpdates[run] = measure(() -> rmq.setRange(l, l + len - 1, values), n);
+    }
+
+    /**
+     * Measure throughput in millions of values per second of the sliding 
+     * window minimum over a random stream of num values, and of answering 
+     * the same window queries with the dynamic structure.
+     */
+    private void measureWindow(int num, int n, int run) {
+        int w = Math.min(1000, num);
+        int[] stream = new int[num];
+        for (int i = 0; i < num; i++) {
+            stream[i] = rand.nextInt();
+        }
+        int[] out = new int[num];
+        StreamingWindowMin window = new StreamingWindowMin(w);
+        windowThroughput[run] = num / 1000.0 / measure(() -> window.pushAll(stream, out), n);
+        DynamicRMQ rmq = new DynamicRMQ(stream);
+        dynamicWindowThroughput[run] = num / 1000.0 / measure(() -> {
+            for (int t = 0; t < num; t++) {
+                out[t] = rmq.query(Math.max(0, t - w + 1), t);
+            }
+        }, n);
+    }
+
+    /**
+     * Median time of n runs of task in milliseconds. The first run is 
+     * discarded.
+     */
+    private double measure(Runnable task, int n) {
+        long[] times = new long[n];
+        long t;
+        task.run();
+        for (int i = 0; i < n; i++) {
+            t = System.nanoTime();
+            task.run();
+            t = System.nanoTime() - t;
+            times[i] = t;
+        }
+        Arrays.sort(times);
+        return times[times.length / 2] / 1000000.0;
+    }
+
+    /**
+     * Measure median preprocessing time of n builds in milliseconds.
+     */
+    private RMQ measureInit(Function<int[], RMQ> builder, int[] arr, int n, 
+            double[] results, int run) {
+        long[] times = new long[n];
+        long t;
+        RMQ rmq = builder.apply(arr);
+        for (int i = 0; i < n; i++) {
+            t = System.nanoTime();
+            rmq = builder.apply(arr);
+            t = System.nanoTime() - t;
+            times[i] = t;
+        }
+        Arrays.sort(times);
+        results[run] = times[times.length / 2] / 1000000.0;
+        return rmq;
+    }
+
+    /**
+     * Measure mean lookup time of each query over n repetitions.
+     */
+    private void measureQueries(RMQ rmq, int[] lefts, int[] rights, int n, int s, int run) {
+        long t;
+        long[] times = new long[lefts.length];
+        for (int i = 0; i < lefts.length; i++) {
+            long tAcc = 0;
+            int l = lefts[i];
+            int r = rights[i];
+            for (int j = 0; j < n; j++) {
+                t = System.nanoTime();
+                rmq.query(l, r);
+                tAcc += System.nanoTime() - t;
+            }
+            times[i] = tAcc / n;
+        }
+        queries[s][run] = getAverage(times);
+        stds[s][run] = getStd(times, queries[s][run]);
+    }
+
+    /**
+     * Measure the heap retained by the structure built from arr in bits per
+     * element. The input array itself is not counted, but copies of it are.
+     * The structure is kept in a field so that it is still reachable during
+     * the second collection.
+     */
+    private double measureMemory(Function<int[], RMQ> builder, int[] arr) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        final long before = runtime.totalMemory() - runtime.freeMemory();
+        retained = builder.apply(arr);
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        retained = null;
+        return 8.0 * (after - before) / arr.length;
+    }
+
+    /**
+     * Measure median throughput of n batched runs of all queries in millions
+     * of queries per second.
+     */
+    private void measureBatch(RMQ rmq, int[] lefts, int[] rights, int n, int s, int run) {
+        long t;
+        long[] times = new long[n];
+        int[] out = new int[lefts.length];
+        rmq.queryAll(lefts, rights, out);
+        for (int i = 0; i < n; i++) {
+            t = System.nanoTime();
+            rmq.queryAll(lefts, rights, out);
+            t = System.nanoTime() - t;
+            times[i] = t;
+        }
+        Arrays.sort(times);
+        batches[s][run] = lefts.length / (times[times.length / 2] / 1000.0);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         
-        sb.append("Dynamic preprocessng times:\n");
-        appendResults(sb, dynamicInits, "ms", null);
+        for (int s = 0; s < names.length; s++) {
+            sb.append(names[s]);
+            sb.append(" preprocessing times:\n");
+            appendResults(sb, inits[s], "ms", null);
+            sb.append("\n");
+        }
+        
+        for (int s = 0; s < names.length; s++) {
+            sb.append(names[s]);
+            sb.append(" memory use:\n");
+            appendResults(sb, memory[s], " bits/element", null);
+            sb.append("\n");
+        }
+        
+        for (int i = 0; i < threads.length; i++) {
+            sb.append("Static preprocessing times with " + threads[i] + " threads:\n");
+            appendResults(sb, staticParallelInits[i], "ms", null);
+            sb.append("\n");
+            sb.append("Dynamic preprocessing times with " + threads[i] + " threads:\n");
+            appendResults(sb, dynamicParallelInits[i], "ms", null);
+            sb.append("\n");
+        }
+        
+        sb.append("Offline batch times:\n");
+        appendResults(sb, offlineBatches, "ms", null);
+        sb.append("\nStatic build and queryAll() times:\n");
+        appendResults(sb, staticBuildBatches, "ms", null);
+        sb.append("\n");
+        
+        sb.append("Dynamic looped update() times:\n");
+        appendResults(sb, loopedUpdates, "ms", null);
+        sb.append("\nDynamic updateAll() times:\n");
+        appendResults(sb, batchUpdates, "ms", null);
+        sb.append("\nDynamic looped update() times for a range:\n");
+        appendResults(sb, loopedRangeUpdates, "ms", null);
+        sb.append("\nDynamic setRange() times:\n");
+        appendResults(sb, rangeUpdates, "ms", null);
+        sb.append("\nSliding window minimum throughput:\n");
+        appendResults(sb, windowThroughput, "M values/s", null);
+        sb.append("\nDynamic window query throughput:\n");
+        appendResults(sb, dynamicWindowThroughput, "M values/s", null);
+        sb.append("\n");
+        
+        String[] layouts = {"Binary", "16-ary"};
+        for (int i = 0; i < layouts.length; i++) {
+            sb.append(layouts[i] + " segment tree query times:\n");
+            appendResults(sb, layoutNums, layoutQueries[i], "ns", null);
+            sb.append("\n");
+            sb.append(layouts[i] + " segment tree update times:\n");
+            appendResults(sb, layoutNums, layoutUpdates[i], "ns", null);
+            sb.append("\n");
+        }
         
-        sb.append("\nStatic preprocessing times:\n");
-        appendResults(sb, staticInits, "ms", null);
+        String[] matrices = {"Static per row", "Static matrix", "Dynamic matrix"};
+        for (int i = 0; i < matrices.length; i++) {
+            sb.append(matrices[i] + " rectangle query times by side length:\n");
+            appendResults(sb, matrixSides, matrixQueries[i], "ns", null);
+            sb.append("\n");
+        }
+        sb.append("Dynamic matrix update times by side length:\n");
+        appendResults(sb, matrixSides, matrixUpdates, "ns", null);
+        sb.append("\n");
         
-        sb.append("\nDynamic lookup times:\n");
-        appendResults(sb, dynamicQueries, "ns", dynamicStd);
+        for (int s = 0; s < names.length; s++) {
+            sb.append(names[s]);
+            sb.append(" lookup times:\n");
+            appendResults(sb, queries[s], "ns", stds[s]);
+            sb.append("\n");
+        }
         
-        sb.append("\nStatic lookup times:\n");
-        appendResults(sb, staticQueries, "ns", staticStd);
+        for (int s = 0; s < names.length; s++) {
+            sb.append(names[s]);
+            sb.append(" batch throughput:\n");
+            appendResults(sb, batches[s], "M queries/s", null);
+            sb.append("\n");
+        }
         
         return sb.toString();
     }
 
     private void appendResults(StringBuilder sb, double[] arr, String suffix, 
             double[] std) {
-        for (int i = 0; i < nums.length; i++) {
-            String num = Integer.toString(nums[i]);
-            for (int j = 0; j < 8 - num.length(); j++) {
+        appendResults(sb, nums, arr, suffix, std);
+    }
+
+    private void appendResults(StringBuilder sb, int[] sizes, double[] arr, String suffix, 
+            double[] std) {
+        for (int i = 0; i < sizes.length; i++) {
+            String num = Integer.toString(sizes[i]);
+            for (int j = 0; j < 9 - num.length(); j++) {
                 sb.append(" ");
             }
             sb.append(num);
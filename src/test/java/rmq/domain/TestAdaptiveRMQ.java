@@ -0,0 +1,145 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestAdaptiveRMQ {
+    
+    /**
+     * Trivial brute force implementation of rmq.
+     * Used here to check proper working of the more advanced structures
+     */
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    private RMQs.Hints readMostly() {
+        return new RMQs.Hints().profile(CalibrationProfile.of(new double[] {10, 20, 100, 50},
+                new double[] {Double.NaN, Double.NaN, 100, 50},
+                new double[] {10, 5, 2, 3}));
+    }
+    
+    @Test
+    public void staticUpdateTest() {
+        int[] arr = {4, 3, 2, 1};
+        AdaptiveRMQ rmq = RMQs.build(arr, readMostly());
+        assertFalse("Read only workload should start static", rmq.kind().dynamic());
+        rmq.update(3, 5);
+        assertEquals("Update should be seen by the next query", 2, rmq.query(0, 3));
+        assertEquals("Index should be updated", 2, rmq.queryIndex(0, 3));
+        assertEquals("Input array should not be modified", 1, arr[3]);
+    }
+    
+    @Test
+    public void switchTest() {
+        Random rand = new Random(97);
+        int[] arr = new int[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(1000);
+        }
+        AdaptiveRMQ rmq = RMQs.build(arr, readMostly());
+        assertEquals(RMQs.Kind.FLAT_STATIC, rmq.kind());
+        for (int t = 0; t < 3 * AdaptiveRMQ.WINDOW; t++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = rand.nextInt(1000);
+            rmq.update(idx, arr[idx]);
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r + " after " + t + " updates",
+                    bruteforce(arr, l, r), rmq.query(l, r));
+        }
+        assertEquals("Should switch to the cheapest dynamic engine",
+                RMQs.Kind.WIDE_DYNAMIC, rmq.kind());
+        assertEquals("Switch should be recorded", 2, rmq.decisions().size());
+        assertTrue(rmq.decisions().get(1).reason().startsWith("switched from FLAT_STATIC"));
+        assertEquals(3 * AdaptiveRMQ.WINDOW, rmq.updateCount());
+        assertEquals(3 * AdaptiveRMQ.WINDOW, rmq.queryCount());
+    }
+    
+    @Test
+    public void metricsTest() {
+        RMQMetrics metrics = new RMQMetrics("adaptive", true);
+        AdaptiveRMQ rmq = RMQs.build(new int[5000], readMostly().metrics(metrics));
+        assertEquals("Initial choice should be recorded", 1, metrics.getDecisionCount());
+        for (int t = 0; t < 2 * AdaptiveRMQ.WINDOW; t++) {
+            rmq.update(t, t);
+            rmq.query(0, t);
+        }
+        assertEquals(RMQs.Kind.WIDE_DYNAMIC, rmq.kind());
+        assertEquals("Switch should be recorded", 2, metrics.getDecisionCount());
+        assertEquals(1, metrics.decisionCount(RMQs.Kind.FLAT_STATIC));
+        assertEquals(1, metrics.decisionCount(RMQs.Kind.WIDE_DYNAMIC));
+        assertEquals("FLAT_STATIC 1, LINEAR 0, DYNAMIC 0, WIDE_DYNAMIC 1",
+                metrics.getDecisionCounts());
+        RMQs.Decision last = metrics.lastDecision();
+        assertSame(rmq.decisions().get(1), last);
+        assertEquals(5000, last.size());
+        assertEquals(1.0, last.updatesPerQuery(), 1e-9);
+        assertTrue(metrics.getLastDecision(), metrics.getLastDecision().startsWith(
+                "WIDE_DYNAMIC for 5000 elements at 1.000 updates per query: switched from"));
+        String json = metrics.toJson();
+        assertTrue(json, json.contains("\"decisions\":{\"counts\":{\"FLAT_STATIC\":1,"
+                + "\"LINEAR\":0,\"DYNAMIC\":0,\"WIDE_DYNAMIC\":1},\"last\":{"
+                + "\"kind\":\"WIDE_DYNAMIC\",\"size\":5000,\"updatesPerQuery\":1.000,"));
+        metrics.reset();
+        assertEquals(0, metrics.getDecisionCount());
+        assertEquals("", metrics.getLastDecision());
+        assertTrue(metrics.toJson().endsWith("\"last\":null}}"));
+    }
+    
+    @Test
+    public void disabledMetricsTest() {
+        RMQMetrics metrics = new RMQMetrics("disabled", false);
+        RMQs.build(new int[10], new RMQs.Hints().metrics(metrics));
+        assertEquals("Disabled metrics should record nothing", 0, metrics.getDecisionCount());
+        assertNull(metrics.lastDecision());
+    }
+    
+    @Test
+    public void noSwitchTest() {
+        int[] arr = new int[5000];
+        AdaptiveRMQ rmq = RMQs.build(arr, readMostly().adaptive(false));
+        for (int t = 0; t < 2 * AdaptiveRMQ.WINDOW; t++) {
+            rmq.update(t, t);
+            rmq.query(0, t);
+        }
+        assertEquals("Switching should be disabled", RMQs.Kind.FLAT_STATIC, rmq.kind());
+        assertEquals(1, rmq.decisions().size());
+    }
+    
+    @Test
+    public void rareUpdatesTest() {
+        int[] arr = new int[500];
+        AdaptiveRMQ rmq = RMQs.build(arr, readMostly());
+        for (int t = 0; t < 4 * AdaptiveRMQ.WINDOW; t++) {
+            if (t % 1000 == 0) {
+                rmq.update(t % arr.length, -t);
+            }
+            rmq.query(0, arr.length - 1);
+        }
+        assertEquals("Rare updates should not switch", RMQs.Kind.FLAT_STATIC, rmq.kind());
+        assertEquals(-4000, rmq.query(0, arr.length - 1));
+    }
+    
+    @Test
+    public void batchTest() {
+        int[] arr = {5, 1, 4, 2};
+        AdaptiveRMQ rmq = RMQs.build(arr);
+        rmq.update(1, 6);
+        int[] out = new int[2];
+        rmq.queryAll(new int[] {0, 2}, new int[] {1, 3}, out);
+        assertArrayEquals(new int[] {5, 2}, out);
+        assertEquals(2, rmq.queryCount());
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateOutOfBoundsTest() {
+        RMQs.build(new int[] {1, 2}).update(2, 0);
+    }
+}
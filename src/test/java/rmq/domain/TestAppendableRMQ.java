@@ -0,0 +1,109 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestAppendableRMQ {
+    
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        AppendableRMQ rmq = new AppendableRMQ(new int[] {4, 3, 2});
+        rmq.append(1);
+        assertEquals("Wrong size", 4, rmq.size());
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 3));
+        assertEquals("Wrong popped value", 1, rmq.pop());
+        assertEquals("Wrong minimum after pop", 2, rmq.query(0, 2));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(47);
+        int[] arr = new int[200];
+        int size = 0;
+        AppendableRMQ rmq = new AppendableRMQ();
+        for (int k = 0; k < 2000; k++) {
+            if (size > 0 && rand.nextInt(4) == 0) {
+                size--;
+                assertEquals("Wrong popped value", arr[size], rmq.pop());
+            } else if (size < arr.length) {
+                arr[size] = rand.nextInt(10000);
+                rmq.append(arr[size]);
+                size++;
+            }
+            assertEquals("Wrong size", size, rmq.size());
+            if (size > 0) {
+                int l = rand.nextInt(size);
+                int r = l + rand.nextInt(size - l);
+                assertEquals("Error for " + l + ", " + r + "\n" 
+                        + Arrays.toString(Arrays.copyOf(arr, size)) + rmq.toString() + "\n", 
+                        bruteforce(arr, l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void growTest() {
+        Random rand = new Random(53);
+        int[] arr = new int[5000];
+        AppendableRMQ rmq = new AppendableRMQ();
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+            rmq.append(arr[i]);
+        }
+        StaticRMQ reference = new StaticRMQ(arr);
+        for (int k = 0; k < 5000; k++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r, reference.query(l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test(expected = NoSuchElementException.class)
+    public void emptyPopTest() {
+        new AppendableRMQ().pop();
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void poppedQueryTest() {
+        AppendableRMQ rmq = new AppendableRMQ(new int[] {4, 3, 2, 1});
+        rmq.pop();
+        rmq.query(0, 3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new AppendableRMQ(new int[] {4, 3, 2, 1}).query(2, 1);
+    }
+    
+    @Test
+    public void queryIndexTest() {
+        Random rand = new Random(23);
+        AppendableRMQ rmq = new AppendableRMQ();
+        int[] arr = new int[150];
+        for (int size = 0; size < arr.length; size++) {
+            arr[size] = rand.nextInt(4);
+            rmq.append(arr[size]);
+        }
+        for (int l = 0; l < arr.length; l++) {
+            int best = l;
+            for (int r = l; r < arr.length; r++) {
+                best = arr[r] < arr[best] ? r : best;
+                if (best != rmq.queryIndex(l, r)) {
+                    fail("Wrong index for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestBlockScanRMQ {
+    
+    /**
+     * Trivial brute force implementation of rmq.
+     * Used here to check proper working of the more advanced structures
+     */
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    private void checkAll(int[] arr, boolean vector) {
+        BlockScanRMQ rmq = new BlockScanRMQ(arr, vector);
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                if (bruteforce(arr, l, r) != rmq.query(l, r)) {
+                    fail("Error for " + l + ", " + r + " with vector = " + vector + "\n"
+                            + Arrays.toString(arr));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        BlockScanRMQ rmq = new BlockScanRMQ(arr);
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", 4, rmq.query(0, 0));
+    }
+    
+    @Test
+    public void sizesTest() {
+        Random rand = new Random(73);
+        for (int n : new int[] {1, 7, 63, 64, 65, 127, 128, 129, 200, 400}) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt();
+            }
+            checkAll(arr, false);
+            checkAll(arr, true);
+        }
+    }
+    
+    @Test
+    public void scalarTest() {
+        assertFalse("Scalar structure should not use the Vector API",
+                new BlockScanRMQ(new int[] {1}, false).vectorized());
+        assertEquals("Vector API should be used when available",
+                BlockScanRMQ.vectorAvailable(), new BlockScanRMQ(new int[] {1}).vectorized());
+    }
+    
+    @Test
+    public void largeTest() {
+        Random rand = new Random(79);
+        int[] arr = new int[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        FlatStaticRMQ expected = new FlatStaticRMQ(arr);
+        BlockScanRMQ rmq = new BlockScanRMQ(arr);
+        for (int i = 0; i < 10000; i++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(Math.min(arr.length - l, i % 2 == 0 ? 300 : arr.length));
+            assertEquals("Error for " + l + ", " + r, expected.query(l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        new BlockScanRMQ(new int[] {1, 2, 3}).query(0, 3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new BlockScanRMQ(new int[] {1, 2, 3}).query(2, 1);
+    }
+}
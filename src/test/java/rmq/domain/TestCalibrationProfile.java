@@ -0,0 +1,53 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+public class TestCalibrationProfile {
+    
+    @Test
+    public void measureTest() {
+        CalibrationProfile profile = CalibrationProfile.measure(1000);
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            assertTrue("Query time should be positive for " + kind,
+                    profile.queryNanos(kind) > 0);
+            assertTrue("Build time should be positive for " + kind,
+                    profile.buildNanosPerElement(kind) > 0);
+            assertEquals("Only dynamic engines have update times for " + kind,
+                    kind.dynamic(), !Double.isNaN(profile.updateNanos(kind)));
+        }
+    }
+    
+    @Test
+    public void storeLoadTest() throws IOException {
+        Path file = Files.createTempFile("profile", ".properties");
+        try {
+            CalibrationProfile profile = CalibrationProfile.defaults();
+            profile.store(file);
+            CalibrationProfile loaded = CalibrationProfile.load(file);
+            assertEquals(profile.toString(), loaded.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void missingEngineTest() throws IOException {
+        Path file = Files.createTempFile("profile", ".properties");
+        try {
+            Files.write(file, "DYNAMIC.query=1\n".getBytes("UTF-8"));
+            CalibrationProfile.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongLengthTest() {
+        CalibrationProfile.of(new double[1], new double[1], new double[1]);
+    }
+}
@@ -0,0 +1,262 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class TestConcurrentDynamicRMQ {
+    
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    private int bruteforce(AtomicIntegerArray arr, int l, int r) {
+        int ret = arr.get(l);
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr.get(i) ? ret : arr.get(i);
+        }
+        return ret;
+    }
+    
+    @Test
+    public void sequentialTest() {
+        Random rand = new Random(7);
+        int[] arr = new int[100];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        ConcurrentDynamicRMQ rmq = new ConcurrentDynamicRMQ(arr);
+        for (int k = 0; k < 1000; k++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = rand.nextInt(10000) - 5000;
+            rmq.update(idx, arr[idx]);
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r + "\n" + Arrays.toString(arr) 
+                    + rmq.toString(), bruteforce(arr, l, r), rmq.query(l, r));
+        }
+        assertEquals(bruteforce(arr, 0, arr.length - 1), rmq.query(0, arr.length - 1));
+    }
+    
+    /**
+     * Writers only ever decrease values. Each writer records a value in
+     * started before and in completed after updating it. A query must then
+     * return at most the minimum of completed at the start of the query and
+     * at least the minimum of started at the end of the query.
+     */
+    @Test
+    public void stressTest() throws InterruptedException {
+        int n = 1000;
+        int writers = 4;
+        int readers = 4;
+        int[] arr = new int[n];
+        Arrays.fill(arr, 1000000);
+        ConcurrentDynamicRMQ rmq = new ConcurrentDynamicRMQ(arr);
+        AtomicIntegerArray started = new AtomicIntegerArray(arr);
+        AtomicIntegerArray completed = new AtomicIntegerArray(arr);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread[] threads = new Thread[writers + readers];
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            threads[w] = new Thread(() -> {
+                Random rand = new Random(id);
+                for (int k = 0; k < 20000; k++) {
+                    int idx = rand.nextInt(n / writers) * writers + id;
+                    int val = started.get(idx) - 1 - rand.nextInt(10);
+                    started.set(idx, val);
+                    rmq.update(idx, val);
+                    completed.set(idx, val);
+                }
+            });
+        }
+        for (int q = 0; q < readers; q++) {
+            int id = q;
+            threads[writers + q] = new Thread(() -> {
+                Random rand = new Random(100 + id);
+                while (!done.get()) {
+                    int l = rand.nextInt(n);
+                    int r = l + rand.nextInt(n - l);
+                    int upper = bruteforce(completed, l, r);
+                    int res = rmq.query(l, r);
+                    int lower = bruteforce(started, l, r);
+                    if (res > upper || res < lower) {
+                        error.compareAndSet(null, "Error for " + l + ", " + r + ": " + res 
+                                + " not in [" + lower + ", " + upper + "]");
+                    }
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (int w = 0; w < writers; w++) {
+            threads[w].join();
+        }
+        done.set(true);
+        for (int q = 0; q < readers; q++) {
+            threads[writers + q].join();
+        }
+        assertNull(error.get(), error.get());
+        for (int i = 0; i < n; i++) {
+            arr[i] = completed.get(i);
+        }
+        for (int l = 0; l < n; l += 7) {
+            for (int r = l; r < n; r += 3) {
+                assertEquals("Error for " + l + ", " + r, bruteforce(arr, l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    /**
+     * Writers both raise and lower the values of their own elements, and log
+     * every update before making it. The state of the elements of a writer
+     * during a query is then one of those between the updates completed
+     * before the query and the updates logged after it, and the result has
+     * to be the minimum of the range for some combination of these states.
+     */
+    @Test
+    public void raiseAndLowerStressTest() throws InterruptedException {
+        int n = 64;
+        int writers = 4;
+        int readers = 2;
+        int updates = 50000;
+        Random init = new Random(3);
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = init.nextInt(1000);
+        }
+        ConcurrentDynamicRMQ rmq = new ConcurrentDynamicRMQ(arr);
+        int[][] indices = new int[writers][updates];
+        int[][] values = new int[writers][updates];
+        AtomicIntegerArray logged = new AtomicIntegerArray(writers);
+        AtomicIntegerArray completed = new AtomicIntegerArray(writers);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread[] threads = new Thread[writers + readers];
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            threads[w] = new Thread(() -> {
+                Random rand = new Random(id);
+                for (int k = 0; k < updates; k++) {
+                    indices[id][k] = rand.nextInt(n / writers) * writers + id;
+                    values[id][k] = rand.nextInt(1000);
+                    logged.set(id, k + 1);
+                    rmq.update(indices[id][k], values[id][k]);
+                    completed.set(id, k + 1);
+                }
+            });
+        }
+        for (int q = 0; q < readers; q++) {
+            int id = q;
+            threads[writers + q] = new Thread(() -> {
+                Random rand = new Random(100 + id);
+                int[] replay = arr.clone();
+                int[] applied = new int[writers];
+                int[] from = new int[writers];
+                while (!done.get() && error.get() == null) {
+                    int l = rand.nextInt(n);
+                    int r = l + rand.nextInt(n - l);
+                    for (int w = 0; w < writers; w++) {
+                        from[w] = completed.get(w);
+                    }
+                    int res = rmq.query(l, r);
+                    boolean[] hit = new boolean[writers];
+                    int[] highest = new int[writers];
+                    for (int w = 0; w < writers; w++) {
+                        int to = logged.get(w);
+                        for (; applied[w] < from[w]; applied[w]++) {
+                            replay[indices[w][applied[w]]] = values[w][applied[w]];
+                        }
+                        int[] state = replay.clone();
+                        for (int k = from[w]; ; k++) {
+                            int min = ownMin(state, w, writers, l, r);
+                            hit[w] |= min == res;
+                            highest[w] = Math.max(highest[w], min);
+                            if (k == to) {
+                                break;
+                            }
+                            state[indices[w][k]] = values[w][k];
+                        }
+                    }
+                    if (!possible(res, hit, highest)) {
+                        error.compareAndSet(null, "Error for " + l + ", " + r + ": " + res
+                                + " was never the minimum");
+                    }
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (int w = 0; w < writers; w++) {
+            threads[w].join();
+        }
+        done.set(true);
+        for (int q = 0; q < readers; q++) {
+            threads[writers + q].join();
+        }
+        assertNull(error.get(), error.get());
+    }
+    
+    /**
+     * Minimum of the elements of writer w in state[l..r], or
+     * Integer.MAX_VALUE if the writer has none there.
+     */
+    private static int ownMin(int[] state, int w, int writers, int l, int r) {
+        int min = Integer.MAX_VALUE;
+        for (int i = l; i <= r; i++) {
+            if (i % writers == w) {
+                min = Math.min(min, state[i]);
+            }
+        }
+        return min;
+    }
+    
+    /**
+     * Whether res is the minimum of a combination of states, one per writer:
+     * some writer has res as its minimum, and every other writer has a state
+     * whose minimum is at least res.
+     */
+    private static boolean possible(int res, boolean[] hit, int[] highest) {
+        for (int w = 0; w < hit.length; w++) {
+            boolean others = true;
+            for (int v = 0; v < hit.length; v++) {
+                others &= v == w || highest[v] >= res;
+            }
+            if (hit[w] && others) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidUpdateTest() {
+        new ConcurrentDynamicRMQ(new int[] {4, 3, 2, 1}).update(4, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidLTest() {
+        new ConcurrentDynamicRMQ(new int[] {4, 3, 2, 1}).query(-1, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidRTest() {
+        new ConcurrentDynamicRMQ(new int[] {4, 3, 2, 1}).query(0, 4);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new ConcurrentDynamicRMQ(new int[] {4, 3, 2, 1}).query(2, 1);
+    }
+}
@@ -0,0 +1,72 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestDoubleStaticRMQ {
+    
+    private double bruteforce(double[] arr, int l, int r) {
+        double ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        DoubleStaticRMQ rmq = new DoubleStaticRMQ(new double[] {4.5, 3.5, 2.5, -1.5});
+        assertEquals("Wrong minimum for whole array", -1.5, rmq.query(0, 3), 0.0);
+        assertEquals("Wrong minimum for first element", 4.5, rmq.query(0, 0), 0.0);
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(97);
+        double[] arr = new double[200];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextGaussian();
+        }
+        DoubleStaticRMQ rmq = new DoubleStaticRMQ(arr);
+        for (int k = 0; k < 1; k++) {
+            for (int l = 0; l < arr.length; l += 3) {
+                for (int r = l; r < arr.length; r += 2) {
+                    assertEquals("Error for " + l + ", " + r, 
+                            bruteforce(arr, l, r), rmq.query(l, r), 0.0);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void queryAllTest() {
+        DoubleStaticRMQ rmq = new DoubleStaticRMQ(new double[] {4.5, 3.5, 2.5, -1.5});
+        double[] out = new double[3];
+        rmq.queryAll(new int[] {0, 1, 0}, new int[] {0, 2, 3}, out);
+        assertArrayEquals("Wrong batch minima", new double[] {4.5, 2.5, -1.5}, out, 0);
+        double[] fresh = new double[3];
+        try {
+            rmq.queryAll(new int[] {0, 1}, new int[] {1, 4}, fresh);
+            fail("Invalid batch was answered");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Batch should be validated first", 0.0, fresh[0], 0);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void nanTest() {
+        new DoubleStaticRMQ(new double[] {4, Double.NaN});
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidRTest() {
+        new DoubleStaticRMQ(new double[] {4.5, 3.5, 2.5, -1.5}).query(0, 4);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new DoubleStaticRMQ(new double[] {4.5, 3.5, 2.5, -1.5}).query(2, 1);
+    }
+}
@@ -0,0 +1,99 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestDynamicMatrixRMQ {
+    
+    @Test
+    public void tinyTest() {
+        int[][] matrix = {{5, 3, 8}, {7, 9, 1}};
+        DynamicMatrixRMQ rmq = new DynamicMatrixRMQ(matrix);
+        assertEquals("Wrong minimum for whole matrix", 1, rmq.query(0, 0, 1, 2));
+        rmq.update(1, 2, 10);
+        assertEquals("Wrong minimum after update", 3, rmq.query(0, 0, 1, 2));
+        assertEquals("Wrong minimum for updated cell", 10, rmq.query(1, 2, 1, 2));
+    }
+    
+    @Test
+    public void allRectanglesTest() {
+        Random rand = new Random(109);
+        for (int rows = 1; rows < 14; rows += 3) {
+            for (int cols = 1; cols < 14; cols += 4) {
+                int[][] matrix = TestStaticMatrixRMQ.randomMatrix(rand, rows, cols, 100);
+                TestStaticMatrixRMQ.checkAll(new DynamicMatrixRMQ(matrix), matrix);
+            }
+        }
+    }
+    
+    @Test
+    public void randomUpdateTest() {
+        Random rand = new Random(113);
+        for (int rows = 1; rows < 12; rows += 5) {
+            for (int cols = 1; cols < 12; cols += 3) {
+                int[][] matrix = TestStaticMatrixRMQ.randomMatrix(rand, rows, cols, 100);
+                DynamicMatrixRMQ rmq = new DynamicMatrixRMQ(matrix);
+                for (int u = 0; u < 20; u++) {
+                    int i = rand.nextInt(rows);
+                    int j = rand.nextInt(cols);
+                    matrix[i][j] = rand.nextInt(100);
+                    rmq.update(i, j, matrix[i][j]);
+                }
+                TestStaticMatrixRMQ.checkAll(rmq, matrix);
+            }
+        }
+    }
+    
+    @Test
+    public void largeRandomTest() {
+        Random rand = new Random(127);
+        int[][] matrix = TestStaticMatrixRMQ.randomMatrix(rand, 300, 250, Integer.MAX_VALUE);
+        DynamicMatrixRMQ rmq = new DynamicMatrixRMQ(matrix);
+        for (int q = 0; q < 2000; q++) {
+            int i = rand.nextInt(300);
+            int j = rand.nextInt(250);
+            matrix[i][j] = rand.nextInt();
+            rmq.update(i, j, matrix[i][j]);
+            int r1 = rand.nextInt(300);
+            int r2 = r1 + rand.nextInt(300 - r1);
+            int c1 = rand.nextInt(250);
+            int c2 = c1 + rand.nextInt(250 - c1);
+            int expected = TestStaticMatrixRMQ.bruteMin(matrix, r1, c1, r2, c2);
+            if (rmq.query(r1, c1, r2, c2) != expected) {
+                fail("Error for " + r1 + ", " + c1 + ", " + r2 + ", " + c2);
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void jaggedTest() {
+        new DynamicMatrixRMQ(new int[][] {{1}, {2, 3}});
+    }
+    
+    @Test
+    public void tooLargeTest() {
+        int[][] matrix = new int[70000][];
+        Arrays.fill(matrix, new int[8000]);
+        try {
+            new DynamicMatrixRMQ(matrix);
+            fail("Structure of " + 4L * 70000 * 8000 + " values was built");
+        } catch (IllegalArgumentException e) {
+            assertEquals("matrix too large: 70000 x 8000", e.getMessage());
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateOutOfBoundsTest() {
+        DynamicMatrixRMQ rmq = new DynamicMatrixRMQ(new int[3][3]);
+        rmq.update(3, 0, 1);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void queryOutOfBoundsTest() {
+        DynamicMatrixRMQ rmq = new DynamicMatrixRMQ(new int[3][3]);
+        rmq.query(-1, 0, 2, 2);
+    }
+}
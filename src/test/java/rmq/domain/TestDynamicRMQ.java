@@ -2,6 +2,9 @@ package rmq.domain;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 public class TestDynamicRMQ {
@@ -10,4 +13,167 @@ public class TestDynamicRMQ {
     public void testNothing() {
         assertTrue(true);
     }
+    
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    private void checkAll(int[] arr, DynamicRMQ rmq) {
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                assertEquals("Error for " + l + ", " + r + "\n" 
+                        + Arrays.toString(arr) + rmq.toString() + "\n", 
+                        bruteforce(arr, l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void updateRootTest() {
+        int[] arr = {4, 3, 2, 1};
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        rmq.update(3, 5);
+        assertEquals("Wrong minimum for whole array", 2, rmq.query(0, 3));
+    }
+    
+    @Test
+    public void updateAllTest() {
+        Random rand = new Random(37);
+        int[] arr = new int[100];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        for (int k = 0; k < 20; k++) {
+            int[] idx = new int[rand.nextInt(30)];
+            int[] val = new int[idx.length];
+            for (int i = 0; i < idx.length; i++) {
+                idx[i] = rand.nextInt(arr.length);
+                val[i] = rand.nextInt(10000);
+                arr[idx[i]] = val[i];
+            }
+            rmq.updateAll(idx, val);
+            checkAll(arr, rmq);
+        }
+    }
+    
+    @Test
+    public void setRangeTest() {
+        Random rand = new Random(41);
+        int[] arr = new int[100];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        for (int k = 0; k < 20; k++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            int[] values = new int[r - l + 1];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rand.nextInt(10000);
+                arr[l + i] = values[i];
+            }
+            rmq.setRange(l, r, values);
+            checkAll(arr, rmq);
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidUpdateAllTest() {
+        int[] arr = {4, 3, 2, 1};
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        rmq.updateAll(new int[] {0, 4}, new int[] {1, 1});
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSetRangeTest() {
+        int[] arr = {4, 3, 2, 1};
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        rmq.setRange(1, 2, new int[] {1});
+    }
+    
+    @Test
+    public void batchTest() {
+        Random rand = new Random(29);
+        int[] arr = new int[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        int[] l = new int[500];
+        int[] r = new int[l.length];
+        for (int i = 0; i < l.length; i++) {
+            l[i] = rand.nextInt(arr.length);
+            r[i] = l[i] + rand.nextInt(arr.length - l[i]);
+        }
+        int[] out = new int[l.length];
+        rmq.queryAll(l, r, out);
+        for (int i = 0; i < l.length; i++) {
+            assertEquals("Error for " + l[i] + ", " + r[i], rmq.query(l[i], r[i]), out[i]);
+        }
+    }
+    
+    @Test
+    public void parallelBuildTest() {
+        Random rand = new Random(31);
+        int[] arr = new int[50000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(new DynamicRMQ(arr).toString(), new DynamicRMQ(arr, pool).toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBatchRangeTest() {
+        int[] arr = {4, 3, 2, 1};
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        rmq.queryAll(new int[] {0, 2}, new int[] {3, 1}, new int[2]);
+    }
+    
+    @Test
+    public void queryIndexTest() {
+        Random rand = new Random(31);
+        for (int n = 1; n < 70; n += 3) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(4);
+            }
+            DynamicRMQ rmq = new DynamicRMQ(arr);
+            for (int l = 0; l < arr.length; l++) {
+                int best = l;
+                for (int r = l; r < arr.length; r++) {
+                    best = arr[r] < arr[best] ? r : best;
+                    if (best != rmq.queryIndex(l, r)) {
+                        fail("Wrong index for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void queryIndexAfterUpdateTest() {
+        int[] arr = {5, 1, 3, 1, 4};
+        DynamicRMQ rmq = new DynamicRMQ(arr);
+        assertEquals("Wrong index for whole array", 1, rmq.queryIndex(0, 4));
+        rmq.update(1, 7);
+        assertEquals("Wrong index after update", 3, rmq.queryIndex(0, 4));
+        rmq.update(0, 1);
+        assertEquals("Wrong index after second update", 0, rmq.queryIndex(0, 4));
+        assertEquals("Wrong index for suffix", 3, rmq.queryIndex(1, 4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void queryIndexOutOfBoundsTest() {
+        new DynamicRMQ(new int[] {1, 2, 3}).queryIndex(0, 3);
+    }
 }
@@ -0,0 +1,86 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestDynamicRangeAggregate {
+    
+    private int bruteforce(int[] arr, Aggregate agg, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = agg.apply(ret, arr[i]);
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        DynamicRangeAggregate sum = new DynamicRangeAggregate(arr, Aggregate.SUM);
+        assertEquals("Wrong sum for whole array", 10, sum.query(0, 3));
+        sum.update(0, 10);
+        assertEquals("Wrong sum after update", 16, sum.query(0, 3));
+        assertEquals("Wrong sum for suffix", 6, sum.query(1, 3));
+    }
+    
+    @Test
+    public void randomUpdateTest() {
+        Random rand = new Random(53);
+        // Composition of functions x -> a * x + b packed as a << 16 | b, which
+        // is associative but not commutative.
+        Aggregate compose = Aggregate.of((f, g) -> {
+            int a = (f >>> 16) * (g >>> 16) & 0xffff;
+            int b = ((g >>> 16) * (f & 0xffff) + (g & 0xffff)) & 0xffff;
+            return a << 16 | b;
+        }, 1 << 16, false);
+        for (Aggregate agg : Arrays.asList(Aggregate.SUM, Aggregate.MIN, Aggregate.MAX,
+                Aggregate.GCD, compose)) {
+            int[] arr = new int[37];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(1 << 20);
+            }
+            DynamicRangeAggregate rmq = new DynamicRangeAggregate(arr, agg);
+            for (int t = 0; t < 300; t++) {
+                int idx = rand.nextInt(arr.length);
+                arr[idx] = rand.nextInt(1 << 20);
+                rmq.update(idx, arr[idx]);
+                int l = rand.nextInt(arr.length);
+                int r = l + rand.nextInt(arr.length - l);
+                assertEquals("Error for " + l + ", " + r + "\n" + Arrays.toString(arr),
+                        bruteforce(arr, agg, l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void sizesTest() {
+        Random rand = new Random(59);
+        for (int n = 1; n < 40; n++) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(100) - 50;
+            }
+            DynamicRangeAggregate rmq = new DynamicRangeAggregate(arr, Aggregate.SUM);
+            for (int l = 0; l < arr.length; l++) {
+                for (int r = l; r < arr.length; r++) {
+                    if (bruteforce(arr, Aggregate.SUM, l, r) != rmq.query(l, r)) {
+                        fail("Error for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateOutOfBoundsTest() {
+        new DynamicRangeAggregate(new int[] {1, 2}, Aggregate.SUM).update(2, 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new DynamicRangeAggregate(new int[] {1, 2}, Aggregate.SUM).query(1, 0);
+    }
+}
@@ -0,0 +1,243 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestLCA {
+    
+    private static int[] randomParents(Random rand, int n, int roots) {
+        int[] parents = new int[n];
+        for (int v = 0; v < n; v++) {
+            parents[v] = v < roots ? -1 : rand.nextInt(v);
+        }
+        // Shuffle the node numbers so that parents are not always smaller.
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = perm[i];
+            perm[i] = perm[j];
+            perm[j] = t;
+        }
+        int[] shuffled = new int[n];
+        for (int v = 0; v < n; v++) {
+            shuffled[perm[v]] = parents[v] == -1 ? -1 : perm[parents[v]];
+        }
+        return shuffled;
+    }
+    
+    private static int bruteDepth(int[] parents, int v) {
+        int depth = 0;
+        for (; parents[v] != -1; v = parents[v]) {
+            depth++;
+        }
+        return depth;
+    }
+    
+    private static int bruteLca(int[] parents, int u, int v) {
+        int du = bruteDepth(parents, u);
+        int dv = bruteDepth(parents, v);
+        for (; du > dv; du--) {
+            u = parents[u];
+        }
+        for (; dv > du; dv--) {
+            v = parents[v];
+        }
+        while (u != v) {
+            u = parents[u];
+            v = parents[v];
+            if (u == -1 || v == -1) {
+                return -1;
+            }
+        }
+        return u;
+    }
+    
+    private static void checkAll(LCA lca, int[] parents) {
+        for (int u = 0; u < parents.length; u++) {
+            if (lca.depth(u) != bruteDepth(parents, u)) {
+                fail("Wrong depth for " + u);
+            }
+            for (int v = 0; v < parents.length; v++) {
+                if (lca.lca(u, v) != bruteLca(parents, u, v)) {
+                    fail("Error for " + u + ", " + v);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        //      0
+        //    1   2
+        //   3 4   5
+        int[] parents = {-1, 0, 0, 1, 1, 2};
+        LCA lca = new LCA(parents);
+        assertEquals("Wrong lca for siblings", 1, lca.lca(3, 4));
+        assertEquals("Wrong lca for cousins", 0, lca.lca(3, 5));
+        assertEquals("Wrong lca for ancestor", 2, lca.lca(5, 2));
+        assertEquals("Wrong lca for same node", 4, lca.lca(4, 4));
+        assertEquals("Wrong depth", 2, lca.depth(5));
+    }
+    
+    @Test
+    public void randomTreeTest() {
+        Random rand = new Random(131);
+        for (int n = 1; n < 200; n += 11) {
+            int[] parents = randomParents(rand, n, 1);
+            checkAll(new LCA(parents), parents);
+        }
+    }
+    
+    @Test
+    public void randomForestTest() {
+        Random rand = new Random(137);
+        for (int n = 2; n < 200; n += 13) {
+            int[] parents = randomParents(rand, n, 1 + rand.nextInt(n));
+            checkAll(new LCA(parents), parents);
+        }
+    }
+    
+    @Test
+    public void deepPathTest() {
+        int n = 1000000;
+        int[] parents = new int[n];
+        for (int v = 0; v < n; v++) {
+            parents[v] = v - 1;
+        }
+        LCA lca = new LCA(parents);
+        assertEquals("Wrong depth of the deepest node", n - 1, lca.depth(n - 1));
+        Random rand = new Random(139);
+        for (int i = 0; i < 10000; i++) {
+            int u = rand.nextInt(n);
+            int v = rand.nextInt(n);
+            if (lca.lca(u, v) != Math.min(u, v)) {
+                fail("Error for " + u + ", " + v);
+            }
+        }
+    }
+    
+    @Test
+    public void largeRandomTreeTest() {
+        Random rand = new Random(149);
+        int n = 100000;
+        int[] parents = randomParents(rand, n, 1);
+        LCA lca = new LCA(parents);
+        for (int i = 0; i < 20000; i++) {
+            int u = rand.nextInt(n);
+            int v = rand.nextInt(n);
+            if (lca.lca(u, v) != bruteLca(parents, u, v)) {
+                fail("Error for " + u + ", " + v);
+            }
+        }
+    }
+    
+    @Test
+    public void adjacencyTest() {
+        Random rand = new Random(151);
+        int n = 150;
+        int[] parents = randomParents(rand, n, 1);
+        int root = 0;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (parents[v] == -1) {
+                root = v;
+            } else {
+                offsets[v + 1]++;
+                offsets[parents[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = offsets.clone();
+        int[] targets = new int[2 * (n - 1)];
+        for (int v = 0; v < n; v++) {
+            if (parents[v] != -1) {
+                targets[fill[v]++] = parents[v];
+                targets[fill[parents[v]]++] = v;
+            }
+        }
+        checkAll(new LCA(offsets, targets, root), parents);
+    }
+    
+    @Test
+    public void batchTest() {
+        Random rand = new Random(157);
+        int[] parents = randomParents(rand, 1000, 3);
+        LCA lca = new LCA(parents);
+        int[] u = new int[5000];
+        int[] v = new int[u.length];
+        for (int i = 0; i < u.length; i++) {
+            u[i] = rand.nextInt(parents.length);
+            v[i] = rand.nextInt(parents.length);
+        }
+        int[] out = new int[u.length];
+        lca.lcaAll(u, v, out);
+        for (int i = 0; i < u.length; i++) {
+            assertEquals("Error for " + u[i] + ", " + v[i], bruteLca(parents, u[i], v[i]),
+                    out[i]);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void cycleTest() {
+        new LCA(new int[] {-1, 2, 1});
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void noRootTest() {
+        new LCA(new int[] {1, 0});
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParentTest() {
+        new LCA(new int[] {-1, 2});
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void adjacencyCycleTest() {
+        int[] offsets = {0, 2, 4, 6};
+        int[] targets = {1, 2, 0, 2, 0, 1};
+        new LCA(offsets, targets, 0);
+    }
+    
+    @Test
+    public void parentToChildTest() {
+        int[] offsets = {0, 2, 3, 3, 3};
+        int[] targets = {1, 2, 3};
+        LCA lca = new LCA(offsets, targets, 0);
+        assertEquals(1, lca.lca(3, 1));
+        assertEquals(0, lca.lca(3, 2));
+        assertEquals(2, lca.depth(3));
+    }
+    
+    @Test
+    public void childToParentTest() {
+        int[] offsets = {0, 0, 1};
+        int[] targets = {0};
+        try {
+            new LCA(offsets, targets, 0);
+            fail("Edge listed only from child to parent was followed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("node 1 is not reachable"));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void unreachableTest() {
+        int[] offsets = {0, 1, 2, 2};
+        int[] targets = {1, 0};
+        new LCA(offsets, targets, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        LCA lca = new LCA(new int[] {-1, 0});
+        lca.lca(0, 2);
+    }
+}
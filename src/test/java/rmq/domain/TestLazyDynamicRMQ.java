@@ -0,0 +1,78 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestLazyDynamicRMQ {
+    
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        LazyDynamicRMQ rmq = new LazyDynamicRMQ(arr);
+        rmq.rangeAdd(2, 3, 5);
+        assertEquals("Wrong minimum after add", 3, rmq.query(0, 3));
+        rmq.rangeAssign(0, 1, 10);
+        assertEquals("Wrong minimum after assign", 6, rmq.query(0, 3));
+        rmq.update(3, 0);
+        assertEquals("Wrong minimum after update", 0, rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", 10, rmq.query(0, 0));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(43);
+        for (int n = 1; n < 40; n++) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(10000);
+            }
+            LazyDynamicRMQ rmq = new LazyDynamicRMQ(arr);
+            for (int k = 0; k < 300; k++) {
+                int l = rand.nextInt(n);
+                int r = l + rand.nextInt(n - l);
+                int op = rand.nextInt(3);
+                if (op == 0) {
+                    int delta = rand.nextInt(200) - 100;
+                    rmq.rangeAdd(l, r, delta);
+                    for (int i = l; i <= r; i++) {
+                        arr[i] += delta;
+                    }
+                } else if (op == 1) {
+                    int value = rand.nextInt(10000);
+                    rmq.rangeAssign(l, r, value);
+                    Arrays.fill(arr, l, r + 1, value);
+                } else {
+                    assertEquals("Error for " + l + ", " + r + "\n" 
+                            + Arrays.toString(arr) + rmq.toString() + "\n", 
+                            bruteforce(arr, l, r), rmq.query(l, r));
+                }
+            }
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidLTest() {
+        new LazyDynamicRMQ(new int[] {4, 3, 2, 1}).rangeAdd(-1, 0, 1);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidRTest() {
+        new LazyDynamicRMQ(new int[] {4, 3, 2, 1}).rangeAssign(0, 4, 1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new LazyDynamicRMQ(new int[] {4, 3, 2, 1}).query(2, 1);
+    }
+}
@@ -0,0 +1,150 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestLinearRMQ {
+    
+    /**
+     * Trivial brute force implementation of rmq.
+     * Used here to check proper working of the more advanced structures
+     */
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        LinearRMQ rmq = new LinearRMQ(arr);
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", 4, rmq.query(0, 0));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(7);
+        int[] arr = new int[300];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        LinearRMQ rmq = new LinearRMQ(arr);
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                assertEquals("Error for " + l + ", " + r + "\n" 
+                        + Arrays.toString(arr) + rmq.toString() + "\n", 
+                        bruteforce(arr, l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void sizesTest() {
+        Random rand = new Random(11);
+        for (int n = 1; n < 100; n++) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(100) - 50;
+            }
+            LinearRMQ rmq = new LinearRMQ(arr);
+            for (int l = 0; l < arr.length; l++) {
+                for (int r = l; r < arr.length; r++) {
+                    assertEquals("Error for " + l + ", " + r + "\n" 
+                            + Arrays.toString(arr) + rmq.toString() + "\n", 
+                            bruteforce(arr, l, r), rmq.query(l, r));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void largeTest() {
+        Random rand = new Random(13);
+        int[] arr = new int[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        LinearRMQ rmq = new LinearRMQ(arr);
+        StaticRMQ reference = new StaticRMQ(arr);
+        for (int i = 0; i < 10000; i++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r, reference.query(l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test
+    public void batchTest() {
+        Random rand = new Random(23);
+        int[] arr = new int[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        LinearRMQ rmq = new LinearRMQ(arr);
+        int[] l = new int[500];
+        int[] r = new int[l.length];
+        for (int i = 0; i < l.length; i++) {
+            l[i] = rand.nextInt(arr.length);
+            r[i] = l[i] + rand.nextInt(arr.length - l[i]);
+        }
+        int[] out = new int[l.length];
+        rmq.queryAll(l, r, out);
+        for (int i = 0; i < l.length; i++) {
+            assertEquals("Error for " + l[i] + ", " + r[i], rmq.query(l[i], r[i]), out[i]);
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void emptyTest() {
+        new LinearRMQ(new int[0]).query(0, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidLTest() {
+        int[] arr = {4, 3, 2, 1};
+        LinearRMQ rmq = new LinearRMQ(arr);
+        rmq.query(-1, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidRTest() {
+        int[] arr = {4, 3, 2, 1};
+        LinearRMQ rmq = new LinearRMQ(arr);
+        rmq.query(0, 4);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        int[] arr = {4, 3, 2, 1};
+        LinearRMQ rmq = new LinearRMQ(arr);
+        rmq.query(2, 1);
+    }
+    
+    @Test
+    public void queryIndexTest() {
+        Random rand = new Random(41);
+        for (int n = 1; n < 200; n += 13) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(4);
+            }
+            LinearRMQ rmq = new LinearRMQ(arr);
+            for (int l = 0; l < arr.length; l++) {
+                int best = l;
+                for (int r = l; r < arr.length; r++) {
+                    best = arr[r] < arr[best] ? r : best;
+                    if (best != rmq.queryIndex(l, r)) {
+                        fail("Wrong index for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                    }
+                }
+            }
+        }
+    }
+}
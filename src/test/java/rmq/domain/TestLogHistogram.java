@@ -0,0 +1,50 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestLogHistogram {
+    
+    @Test
+    public void bucketsTest() {
+        for (long v : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE}) {
+            int b = LogHistogram.bucket(v);
+            assertTrue("Value " + v + " above its bucket", v <= LogHistogram.highest(b));
+            assertTrue("Value " + v + " in too high a bucket",
+                    b == 0 || v > LogHistogram.highest(b - 1));
+        }
+    }
+    
+    @Test
+    public void percentileTest() {
+        LogHistogram h = new LogHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            h.record(i, 1);
+        }
+        assertEquals(10000, h.count());
+        assertEquals(10000, h.max());
+        long p50 = h.percentile(50);
+        long p99 = h.percentile(99);
+        assertTrue("p50 was " + p50, p50 >= 5000 && p50 <= 5000 * 17 / 16);
+        assertTrue("p99 was " + p99, p99 >= 9900 && p99 <= 10000);
+        assertEquals(10000, h.percentile(100));
+    }
+    
+    @Test
+    public void countTest() {
+        LogHistogram h = new LogHistogram();
+        Random rand = new Random(101);
+        long total = 0;
+        for (int i = 0; i < 1000; i++) {
+            int count = rand.nextInt(5) + 1;
+            h.record(rand.nextInt(1 << 20), count);
+            total += count;
+        }
+        assertEquals(total, h.count());
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.percentile(50));
+    }
+}
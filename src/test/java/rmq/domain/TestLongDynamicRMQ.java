@@ -0,0 +1,70 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestLongDynamicRMQ {
+    
+    private long bruteforce(long[] arr, int l, int r) {
+        long ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        LongDynamicRMQ rmq = new LongDynamicRMQ(new long[] {4L, 3L, 2L, 1L});
+        assertEquals("Wrong minimum for whole array", 1L, rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", 4L, rmq.query(0, 0));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(89);
+        long[] arr = new long[200];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextLong();
+        }
+        LongDynamicRMQ rmq = new LongDynamicRMQ(arr);
+        for (int k = 0; k < 20; k++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = rand.nextLong();
+            rmq.update(idx, arr[idx]);
+            for (int l = 0; l < arr.length; l += 3) {
+                for (int r = l; r < arr.length; r += 2) {
+                    assertEquals("Error for " + l + ", " + r, 
+                            bruteforce(arr, l, r), rmq.query(l, r));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void queryAllTest() {
+        LongDynamicRMQ rmq = new LongDynamicRMQ(new long[] {4L, 3L, 2L, 1L});
+        long[] out = new long[3];
+        rmq.queryAll(new int[] {0, 1, 0}, new int[] {0, 2, 3}, out);
+        assertArrayEquals("Wrong batch minima", new long[] {4L, 2L, 1L}, out);
+        long[] fresh = new long[3];
+        try {
+            rmq.queryAll(new int[] {0, 1}, new int[] {1, 4}, fresh);
+            fail("Invalid batch was answered");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Batch should be validated first", 0L, fresh[0]);
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidRTest() {
+        new LongDynamicRMQ(new long[] {4L, 3L, 2L, 1L}).query(0, 4);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new LongDynamicRMQ(new long[] {4L, 3L, 2L, 1L}).query(2, 1);
+    }
+}
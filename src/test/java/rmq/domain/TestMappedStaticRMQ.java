@@ -0,0 +1,124 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestMappedStaticRMQ {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private MappedStaticRMQ roundTrip(int[] arr) throws IOException {
+        File file = folder.newFile();
+        MappedStaticRMQ.write(new FlatStaticRMQ(arr), file.toPath());
+        return MappedStaticRMQ.open(file.toPath());
+    }
+    
+    @Test
+    public void tinyTest() throws IOException {
+        MappedStaticRMQ rmq = roundTrip(new int[] {4, 3, 2, 1});
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", 4, rmq.query(0, 0));
+    }
+    
+    @Test
+    public void randomTest() throws IOException {
+        Random rand = new Random(67);
+        int[] arr = new int[300];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        StaticRMQ reference = new StaticRMQ(arr);
+        MappedStaticRMQ rmq = roundTrip(arr);
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                assertEquals("Error for " + l + ", " + r, reference.query(l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void largeTest() throws IOException {
+        Random rand = new Random(71);
+        int[] arr = new int[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        StaticRMQ reference = new StaticRMQ(arr);
+        File file = folder.newFile();
+        MappedStaticRMQ.write(new FlatStaticRMQ(arr), file.toPath());
+        MappedStaticRMQ rmq = MappedStaticRMQ.open(file.toPath(), false);
+        for (int k = 0; k < 10000; k++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r, reference.query(l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void corruptedTest() throws IOException {
+        File file = folder.newFile();
+        MappedStaticRMQ.write(new FlatStaticRMQ(new int[] {4, 3, 2, 1}), file.toPath());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write(7);
+        }
+        MappedStaticRMQ.open(file.toPath());
+    }
+    
+    @Test(expected = IOException.class)
+    public void notRmqFileTest() throws IOException {
+        File file = folder.newFile();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write(new byte[64]);
+        }
+        MappedStaticRMQ.open(file.toPath());
+    }
+    
+    @Test
+    public void chunkTest() throws IOException {
+        Random rand = new Random(73);
+        int[] arr = new int[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        StaticRMQ reference = new StaticRMQ(arr);
+        File file = folder.newFile();
+        MappedStaticRMQ.write(new FlatStaticRMQ(arr), file.toPath());
+        MappedStaticRMQ rmq = MappedStaticRMQ.open(file.toPath(), true, 5);
+        for (int l = 0; l < arr.length; l += 3) {
+            for (int r = l; r < arr.length; r += 7) {
+                assertEquals("Error for " + l + ", " + r, reference.query(l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void tooLargeTest() throws IOException {
+        File file = folder.newFile();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            for (int v : new int[] {MappedStaticRMQ.MAGIC, MappedStaticRMQ.VERSION, 100000000,
+                27, 0}) {
+                raf.writeInt(Integer.reverseBytes(v));
+            }
+        }
+        try {
+            MappedStaticRMQ.open(file.toPath());
+            fail("Table of " + SparseTables.uncheckedLength(100000000) + " values was opened");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("file too large"));
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidRTest() throws IOException {
+        roundTrip(new int[] {4, 3, 2, 1}).query(0, 4);
+    }
+}
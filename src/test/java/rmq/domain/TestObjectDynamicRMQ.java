@@ -0,0 +1,71 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestObjectDynamicRMQ {
+    
+    private String bruteforce(String[] arr, int l, int r) {
+        String ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret.compareTo(arr[i]) <= 0 ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        String[] arr = {"d", "c", "b", "a"};
+        ObjectDynamicRMQ<String> rmq = new ObjectDynamicRMQ<>(arr, Comparator.naturalOrder());
+        assertEquals("Wrong minimum for whole array", "a", rmq.query(0, 3));
+        rmq.update(3, "e");
+        assertEquals("Wrong minimum after update", "b", rmq.query(0, 3));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(107);
+        String[] arr = new String[150];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = Integer.toString(rand.nextInt(100000));
+        }
+        ObjectDynamicRMQ<String> rmq = new ObjectDynamicRMQ<>(arr, Comparator.naturalOrder());
+        for (int k = 0; k < 1000; k++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = Integer.toString(rand.nextInt(100000));
+            rmq.update(idx, arr[idx]);
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r, bruteforce(arr, l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test
+    public void queryAllTest() {
+        ObjectDynamicRMQ<String> rmq = new ObjectDynamicRMQ<>(new String[] {"d", "c", "b", "a"},
+                Comparator.naturalOrder());
+        String[] out = new String[3];
+        rmq.queryAll(new int[] {0, 1, 0}, new int[] {0, 2, 3}, out);
+        assertArrayEquals("Wrong batch minima", new String[] {"d", "b", "a"}, out);
+        String[] fresh = new String[3];
+        try {
+            rmq.queryAll(new int[] {0, 1}, new int[] {1, 4}, fresh);
+            fail("Invalid batch was answered");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Batch should be validated first", null, fresh[0]);
+        }
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void nullTest() {
+        new ObjectDynamicRMQ<>(new String[] {"a", null}, Comparator.naturalOrder());
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidUpdateTest() {
+        new ObjectDynamicRMQ<>(new String[] {"a"}, Comparator.naturalOrder()).update(1, "b");
+    }
+}
@@ -0,0 +1,69 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestObjectStaticRMQ {
+    
+    private String bruteforce(String[] arr, int l, int r) {
+        String ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret.compareTo(arr[i]) <= 0 ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    @Test
+    public void tinyTest() {
+        String[] arr = {"d", "c", "b", "a"};
+        ObjectStaticRMQ<String> rmq = new ObjectStaticRMQ<>(arr, Comparator.naturalOrder());
+        assertEquals("Wrong minimum for whole array", "a", rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", "d", rmq.query(0, 0));
+    }
+    
+    @Test
+    public void comparatorTest() {
+        String[] arr = {"d", "c", "b", "a"};
+        ObjectStaticRMQ<String> rmq = new ObjectStaticRMQ<>(arr, Comparator.reverseOrder());
+        assertEquals("Wrong maximum for whole array", "d", rmq.query(0, 3));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(103);
+        String[] arr = new String[200];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = Integer.toString(rand.nextInt(100000));
+        }
+        ObjectStaticRMQ<String> rmq = new ObjectStaticRMQ<>(arr, Comparator.naturalOrder());
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                assertEquals("Error for " + l + ", " + r, bruteforce(arr, l, r), rmq.query(l, r));
+            }
+        }
+    }
+    
+    @Test
+    public void queryAllTest() {
+        ObjectStaticRMQ<String> rmq = new ObjectStaticRMQ<>(new String[] {"d", "c", "b", "a"},
+                Comparator.naturalOrder());
+        String[] out = new String[3];
+        rmq.queryAll(new int[] {0, 1, 0}, new int[] {0, 2, 3}, out);
+        assertArrayEquals("Wrong batch minima", new String[] {"d", "b", "a"}, out);
+        String[] fresh = new String[3];
+        try {
+            rmq.queryAll(new int[] {0, 1}, new int[] {1, 4}, fresh);
+            fail("Invalid batch was answered");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Batch should be validated first", null, fresh[0]);
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidLTest() {
+        new ObjectStaticRMQ<>(new String[] {"a"}, Comparator.naturalOrder()).query(-1, 0);
+    }
+}
@@ -0,0 +1,86 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestOffHeapDynamicRMQ {
+    
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    private void randomUpdates(int[] arr, OffHeapDynamicRMQ rmq, Random rand) {
+        for (int k = 0; k < 2000; k++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = rand.nextInt(10000);
+            rmq.update(idx, arr[idx]);
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r + "\n" + Arrays.toString(arr), 
+                    bruteforce(arr, l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        OffHeapDynamicRMQ rmq = new OffHeapDynamicRMQ(new int[] {4, 3, 2, 1});
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 3));
+        rmq.update(3, 5);
+        assertEquals("Wrong minimum after update", 2, rmq.query(0L, 3L));
+        assertEquals("Wrong size", 4, rmq.size());
+    }
+    
+    @Test
+    public void updatableTest() {
+        UpdatableRMQ rmq = new OffHeapDynamicRMQ(new int[] {4, 3, 2, 1});
+        rmq.update(3, 5);
+        rmq.update(0, 0);
+        assertEquals("Wrong minimum after update", 0, rmq.query(0, 3));
+        assertEquals("Wrong minimum of updated value", 5, rmq.query(3, 3));
+        RMQMetrics metrics = new RMQMetrics("offheap", true);
+        metrics.instrument(rmq).update(1, -1);
+        assertEquals("Wrong minimum after instrumented update", -1, rmq.query(0, 3));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(73);
+        int[] arr = new int[300];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        randomUpdates(arr, new OffHeapDynamicRMQ(arr), rand);
+    }
+    
+    @Test
+    public void chunkTest() {
+        Random rand = new Random(79);
+        int[] arr = new int[300];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        randomUpdates(arr, new OffHeapDynamicRMQ(arr.length, i -> arr[(int)i], 4), rand);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidUpdateTest() {
+        new OffHeapDynamicRMQ(new int[] {4, 3, 2, 1}).update(4, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidLTest() {
+        new OffHeapDynamicRMQ(new int[] {4, 3, 2, 1}).query(-1, 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new OffHeapDynamicRMQ(new int[] {4, 3, 2, 1}).query(2, 1);
+    }
+}
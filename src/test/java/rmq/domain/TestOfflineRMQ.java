@@ -0,0 +1,80 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestOfflineRMQ {
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        int[] l = {0, 0, 1, 3};
+        int[] r = {3, 0, 2, 3};
+        int[] out = new int[4];
+        OfflineRMQ.queryAll(arr, l, r, out);
+        assertArrayEquals("Wrong minima", new int[] {1, 4, 2, 1}, out);
+    }
+    
+    @Test
+    public void allRangesTest() {
+        Random rand = new Random(83);
+        for (int n = 1; n < 60; n += 4) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(10);
+            }
+            int[] l = new int[n * (n + 1) / 2];
+            int[] r = new int[l.length];
+            int q = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) {
+                    l[q] = i;
+                    r[q++] = j;
+                }
+            }
+            int[] out = new int[l.length];
+            OfflineRMQ.queryAll(arr, l, r, out);
+            StaticRMQ rmq = new StaticRMQ(arr);
+            for (q = 0; q < l.length; q++) {
+                assertEquals("Error for " + l[q] + ", " + r[q], rmq.query(l[q], r[q]), out[q]);
+            }
+        }
+    }
+    
+    @Test
+    public void randomBatchTest() {
+        Random rand = new Random(89);
+        int[] arr = new int[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        int[] l = new int[200000];
+        int[] r = new int[l.length];
+        for (int i = 0; i < l.length; i++) {
+            l[i] = rand.nextInt(arr.length);
+            r[i] = l[i] + rand.nextInt(arr.length - l[i]);
+        }
+        int[] out = new int[l.length];
+        int[] expected = new int[l.length];
+        OfflineRMQ.queryAll(arr, l, r, out);
+        new StaticRMQ(arr).queryAll(l, r, expected);
+        assertArrayEquals("Offline results differ from StaticRMQ", expected, out);
+    }
+    
+    @Test
+    public void emptyBatchTest() {
+        OfflineRMQ.queryAll(new int[] {1, 2}, new int[0], new int[0], new int[0]);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        OfflineRMQ.queryAll(new int[] {1, 2}, new int[] {0}, new int[] {2}, new int[1]);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        OfflineRMQ.queryAll(new int[] {1, 2}, new int[] {1}, new int[] {0}, new int[1]);
+    }
+}
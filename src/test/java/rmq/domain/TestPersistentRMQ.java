@@ -0,0 +1,145 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestPersistentRMQ {
+    
+    private static void checkAll(PersistentRMQ rmq, int version, int[] arr) {
+        for (int l = 0; l < arr.length; l++) {
+            int min = Integer.MAX_VALUE;
+            for (int r = l; r < arr.length; r++) {
+                min = Math.min(min, arr[r]);
+                if (rmq.query(version, l, r) != min) {
+                    fail("Error in version " + version + " for " + l + ", " + r);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        PersistentRMQ rmq = new PersistentRMQ(arr);
+        int v = rmq.update(3, 5);
+        assertEquals("Wrong version", 1, v);
+        assertEquals("Wrong minimum in version 0", 1, rmq.query(0, 0, 3));
+        assertEquals("Wrong minimum in version 1", 2, rmq.query(1, 0, 3));
+        assertEquals("Wrong minimum in latest version", 2, rmq.query(0, 3));
+    }
+    
+    @Test
+    public void everyVersionTest() {
+        Random rand = new Random(97);
+        int[] arr = new int[37];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(100);
+        }
+        PersistentRMQ rmq = new PersistentRMQ(arr);
+        List<int[]> versions = new ArrayList<>();
+        versions.add(arr.clone());
+        for (int i = 0; i < 200; i++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = rand.nextInt(100);
+            assertEquals("Wrong version", versions.size(), rmq.update(idx, arr[idx]));
+            versions.add(arr.clone());
+        }
+        for (int v = 0; v < versions.size(); v++) {
+            checkAll(rmq, v, versions.get(v));
+        }
+    }
+    
+    @Test
+    public void branchTest() {
+        int[] arr = {5, 6, 7, 8, 9};
+        PersistentRMQ rmq = new PersistentRMQ(arr);
+        int a = rmq.update(0, 2, 1);
+        int b = rmq.update(0, 4, 0);
+        final int c = rmq.update(a, 0, 3);
+        checkAll(rmq, 0, arr);
+        checkAll(rmq, a, new int[] {5, 6, 1, 8, 9});
+        checkAll(rmq, b, new int[] {5, 6, 7, 8, 0});
+        checkAll(rmq, c, new int[] {3, 6, 1, 8, 9});
+    }
+    
+    @Test
+    public void updateSpaceTest() {
+        int[] arr = new int[1 << 16];
+        PersistentRMQ rmq = new PersistentRMQ(arr);
+        int nodes = rmq.nodeCount();
+        rmq.update(1234, -1);
+        assertEquals("Update should copy one path", 17, rmq.nodeCount() - nodes);
+    }
+    
+    @Test
+    public void releaseTest() {
+        Random rand = new Random(101);
+        int[] arr = new int[50];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(1000);
+        }
+        PersistentRMQ rmq = new PersistentRMQ(arr);
+        List<int[]> versions = new ArrayList<>();
+        versions.add(arr.clone());
+        for (int i = 0; i < 300; i++) {
+            int idx = rand.nextInt(arr.length);
+            arr[idx] = rand.nextInt(1000);
+            rmq.update(idx, arr[idx]);
+            versions.add(arr.clone());
+        }
+        final int nodes = rmq.nodeCount();
+        rmq.release(250);
+        assertEquals("Wrong oldest version", 250, rmq.oldest());
+        assertEquals("Wrong latest version", 300, rmq.latest());
+        assertTrue("Release should free nodes", rmq.nodeCount() < nodes);
+        for (int v = 250; v < versions.size(); v++) {
+            checkAll(rmq, v, versions.get(v));
+        }
+        int idx = rand.nextInt(arr.length);
+        arr[idx] = -1;
+        assertEquals("Wrong version after release", 301, rmq.update(idx, -1));
+        checkAll(rmq, 301, arr);
+        checkAll(rmq, 260, versions.get(260));
+    }
+    
+    @Test
+    public void releaseAllButLatestTest() {
+        int[] arr = {3, 1, 2};
+        PersistentRMQ rmq = new PersistentRMQ(arr);
+        rmq.update(1, 4);
+        rmq.update(0, 0);
+        rmq.release(rmq.latest());
+        assertEquals("Only the latest path should be copied", 5, rmq.nodeCount());
+        checkAll(rmq, 2, new int[] {0, 4, 2});
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void releasedVersionTest() {
+        PersistentRMQ rmq = new PersistentRMQ(new int[] {1, 2, 3});
+        rmq.update(0, 5);
+        rmq.release(1);
+        rmq.query(0, 0, 2);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownVersionTest() {
+        PersistentRMQ rmq = new PersistentRMQ(new int[] {1, 2, 3});
+        rmq.update(1, 0, 5);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateOutOfBoundsTest() {
+        PersistentRMQ rmq = new PersistentRMQ(new int[] {1, 2, 3});
+        rmq.update(3, 5);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void queryOutOfBoundsTest() {
+        PersistentRMQ rmq = new PersistentRMQ(new int[] {1, 2, 3});
+        rmq.query(0, 3);
+    }
+}
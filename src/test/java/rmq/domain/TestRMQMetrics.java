@@ -0,0 +1,132 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+public class TestRMQMetrics {
+    
+    @Test
+    public void disabledTest() {
+        RMQMetrics metrics = new RMQMetrics("disabled", false);
+        DynamicRMQ rmq = new DynamicRMQ(new int[] {1, 2});
+        assertSame("Disabled metrics should not wrap", rmq, metrics.instrument(rmq));
+        metrics.build(() -> new StaticRMQ(new int[] {1}));
+        assertEquals(0, metrics.getBuildCount());
+    }
+    
+    @Test
+    public void queryTest() {
+        RMQMetrics metrics = new RMQMetrics("queries", true);
+        RMQ rmq = metrics.instrument(new StaticRMQ(new int[] {4, 3, 2, 1}));
+        assertEquals("Wrapper should answer queries", 1, rmq.query(0, 3));
+        assertEquals(2, rmq.queryIndex(1, 2));
+        int[] out = new int[2];
+        rmq.queryAll(new int[] {0, 1}, new int[] {0, 1}, out);
+        assertArrayEquals(new int[] {4, 3}, out);
+        assertEquals(4, metrics.getQueryCount());
+        assertEquals(4, metrics.getRangeLengthP99());
+        assertEquals(1, metrics.getRangeLengthP50());
+    }
+    
+    @Test
+    public void updateTest() {
+        RMQMetrics metrics = new RMQMetrics("updates", true);
+        UpdatableRMQ rmq = metrics.instrument(new DynamicRMQ(new int[] {4, 3, 2, 1}));
+        rmq.update(3, 5);
+        assertEquals("Update should reach the wrapped structure", 2, rmq.query(0, 3));
+        assertEquals(1, metrics.getUpdateCount());
+        assertTrue(metrics.getUpdateLatencyMax() >= metrics.getUpdateLatencyP50());
+    }
+    
+    @Test
+    public void staticUpdateTest() {
+        RMQMetrics metrics = new RMQMetrics("static", true);
+        RMQ rmq = metrics.instrument(new StaticRMQ(new int[] {1}));
+        assertFalse("A static structure should not look updatable",
+                rmq instanceof UpdatableRMQ);
+        RMQ dynamic = metrics.instrument((RMQ)new DynamicRMQ(new int[] {1}));
+        assertTrue("A dynamic structure should stay updatable", dynamic instanceof UpdatableRMQ);
+        ((UpdatableRMQ)dynamic).update(0, 2);
+        assertEquals(2, dynamic.query(0, 0));
+        assertEquals(1, metrics.getUpdateCount());
+    }
+    
+    @Test
+    public void samplingTest() {
+        RMQMetrics metrics = new RMQMetrics("sampling", true);
+        UpdatableRMQ rmq = metrics.instrument(new DynamicRMQ(new int[100]));
+        for (int i = 0; i < 8000; i++) {
+            rmq.query(0, i % 100);
+        }
+        assertEquals(8000, metrics.getQueryCount());
+        long timed = metrics.queryLatencyCount();
+        assertTrue("About one in 8 queries should be timed: " + timed,
+                timed > 800 && timed < 1200);
+        int[] out = new int[10];
+        rmq.queryAll(new int[10], new int[10], out);
+        assertEquals("Batches should always be timed", timed + 10, metrics.queryLatencyCount());
+    }
+    
+    @Test
+    public void buildTest() {
+        RMQMetrics metrics = new RMQMetrics("builds", true);
+        StaticRMQ rmq = metrics.build(() -> new StaticRMQ(new int[1000]));
+        assertEquals(0, rmq.query(0, 999));
+        assertEquals(1, metrics.getBuildCount());
+        assertTrue(metrics.getBuildTimeMax() > 0);
+    }
+    
+    @Test
+    public void snapshotTest() {
+        RMQMetrics metrics = new RMQMetrics("snap\"shot", true);
+        metrics.instrument(new StaticRMQ(new int[] {1, 2})).query(0, 1);
+        String json = metrics.toJson();
+        assertTrue(json, json.startsWith("{\"name\":\"snap\\\"shot\",\"queries\":1,"
+                + "\"updates\":0,"));
+        assertTrue(json, json.contains("\"rangeLength\":{\"count\":1,\"p50\":2,"));
+        assertTrue(metrics.toString().startsWith("snap\"shot: 1 queries, 0 updates"));
+        metrics.reset();
+        assertEquals(0, metrics.getQueryCount());
+    }
+    
+    @Test
+    public void jmxTest() throws Exception {
+        RMQMetrics metrics = new RMQMetrics("jmx", true);
+        ObjectName name = metrics.register();
+        try {
+            metrics.instrument(new StaticRMQ(new int[] {1, 2})).query(0, 1);
+            Object count = ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(name, "QueryCount");
+            assertEquals(1L, count);
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+    
+    @Test
+    public void reportTest() throws Exception {
+        RMQMetrics metrics = new RMQMetrics("report", true);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        BlockingQueue<String> reports = new ArrayBlockingQueue<>(100);
+        try {
+            ScheduledFuture<?> future = metrics.report(executor, 1, TimeUnit.MILLISECONDS,
+                    reports::offer);
+            String report = reports.poll(10, TimeUnit.SECONDS);
+            future.cancel(false);
+            assertNotNull("No report was made", report);
+            assertTrue(report.startsWith("{\"name\":\"report\""));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestRMQs {
+    
+    /**
+     * Profile where flat static queries are cheapest, wide dynamic queries
+     * cheapest among the dynamic engines and rebuilds expensive.
+     */
+    private CalibrationProfile profile() {
+        return CalibrationProfile.of(new double[] {10, 20, 100, 50},
+                new double[] {Double.NaN, Double.NaN, 100, 50},
+                new double[] {10, 5, 2, 3});
+    }
+    
+    @Test
+    public void readOnlyTest() {
+        AdaptiveRMQ rmq = RMQs.build(new int[1000], new RMQs.Hints().profile(profile()));
+        assertEquals("Cheapest static engine should be chosen without updates",
+                RMQs.Kind.FLAT_STATIC, rmq.kind());
+        assertEquals("The choice should be recorded", 1, rmq.decisions().size());
+        assertEquals(RMQs.Kind.FLAT_STATIC, rmq.decisions().get(0).kind());
+    }
+    
+    @Test
+    public void updatesTest() {
+        RMQs.Hints hints = new RMQs.Hints().profile(profile()).updatesPerQuery(0.5);
+        assertEquals("Cheapest dynamic engine should be chosen with updates",
+                RMQs.Kind.WIDE_DYNAMIC, RMQs.build(new int[100000], hints).kind());
+    }
+    
+    @Test
+    public void memoryBudgetTest() {
+        int size = 1000000;
+        RMQs.Hints hints = new RMQs.Hints().profile(profile())
+                .memoryBudget(RMQs.Kind.LINEAR.bytes(size));
+        assertEquals("Engines over the budget should be skipped",
+                RMQs.Kind.LINEAR, RMQs.build(new int[size], hints).kind());
+        hints.memoryBudget(1);
+        AdaptiveRMQ rmq = RMQs.build(new int[size], hints);
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            assertTrue("Smallest engine should be used if none fits",
+                    rmq.kind().bytes(size) <= kind.bytes(size));
+        }
+        assertTrue("Reason should mention the budget",
+                rmq.decisions().get(0).reason().contains("no engine fits"));
+    }
+    
+    @Test
+    public void bytesTest() {
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            assertTrue("Memory estimate should grow with size for " + kind,
+                    kind.bytes(1000) < kind.bytes(1000000));
+        }
+        assertTrue("Linear engine should be smaller than the sparse table",
+                RMQs.Kind.LINEAR.bytes(1000000) < RMQs.Kind.FLAT_STATIC.bytes(1000000));
+    }
+    
+    @Test
+    public void largeSizeTest() {
+        int size = 100000000;
+        RMQs.Decision decision = RMQs.choose(size, 0, false, new RMQs.Hints());
+        assertNotEquals("The sparse table does not fit in an array",
+                RMQs.Kind.FLAT_STATIC, decision.kind());
+        assertEquals("Sparse table should not be buildable", Long.MAX_VALUE,
+                RMQs.Kind.FLAT_STATIC.bytes(size));
+        RMQs.Hints hints = new RMQs.Hints().profile(profile()).updatesPerQuery(0.5)
+                .memoryBudget(Long.MAX_VALUE);
+        assertTrue("A dynamic engine should be chosen with updates",
+                RMQs.choose(size, 0.5, false, hints).kind().dynamic());
+    }
+    
+    @Test
+    public void bytesOverflowTest() {
+        assertEquals("Dynamic tree over 2^30 + 1 values does not fit in an array",
+                Long.MAX_VALUE, RMQs.Kind.DYNAMIC.bytes((1 << 30) + 1));
+        assertEquals("Wide tree does not fit in an array", Long.MAX_VALUE,
+                RMQs.Kind.WIDE_DYNAMIC.bytes(Integer.MAX_VALUE));
+        assertTrue("Linear engine should fit any array",
+                RMQs.Kind.LINEAR.bytes(Integer.MAX_VALUE) > 8L * Integer.MAX_VALUE);
+        for (RMQs.Kind kind : RMQs.Kind.values()) {
+            assertTrue("Estimate should be positive for " + kind,
+                    kind.bytes(Integer.MAX_VALUE) > 0);
+        }
+        assertEquals("Dynamic tree of 2^29 values", 8L << 29, RMQs.Kind.DYNAMIC.bytes(1 << 29));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeRatioTest() {
+        new RMQs.Hints().updatesPerQuery(-1);
+    }
+}
@@ -0,0 +1,113 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestStaticMatrixRMQ {
+    
+    static int[][] randomMatrix(Random rand, int rows, int cols, int bound) {
+        int[][] matrix = new int[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix[i][j] = rand.nextInt(bound);
+            }
+        }
+        return matrix;
+    }
+    
+    static int bruteMin(int[][] matrix, int r1, int c1, int r2, int c2) {
+        int min = Integer.MAX_VALUE;
+        for (int i = r1; i <= r2; i++) {
+            for (int j = c1; j <= c2; j++) {
+                min = Math.min(min, matrix[i][j]);
+            }
+        }
+        return min;
+    }
+    
+    /**
+     * Compare every rectangle of the matrix to brute force.
+     */
+    static void checkAll(MatrixRMQ rmq, int[][] matrix) {
+        int rows = matrix.length;
+        int cols = matrix[0].length;
+        for (int r1 = 0; r1 < rows; r1++) {
+            for (int c1 = 0; c1 < cols; c1++) {
+                for (int r2 = r1; r2 < rows; r2++) {
+                    int min = Integer.MAX_VALUE;
+                    for (int c2 = c1; c2 < cols; c2++) {
+                        for (int i = r1; i <= r2; i++) {
+                            min = Math.min(min, matrix[i][c2]);
+                        }
+                        if (rmq.query(r1, c1, r2, c2) != min) {
+                            fail("Error for " + r1 + ", " + c1 + ", " + r2 + ", " + c2);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[][] matrix = {{5, 3, 8}, {7, 9, 1}};
+        StaticMatrixRMQ rmq = new StaticMatrixRMQ(matrix);
+        assertEquals("Wrong minimum for whole matrix", 1, rmq.query(0, 0, 1, 2));
+        assertEquals("Wrong minimum for first row", 3, rmq.query(0, 0, 0, 2));
+        assertEquals("Wrong minimum for first column", 5, rmq.query(0, 0, 1, 0));
+        assertEquals("Wrong minimum for single cell", 9, rmq.query(1, 1, 1, 1));
+    }
+    
+    @Test
+    public void allRectanglesTest() {
+        Random rand = new Random(103);
+        for (int rows = 1; rows < 14; rows += 3) {
+            for (int cols = 1; cols < 14; cols += 4) {
+                int[][] matrix = randomMatrix(rand, rows, cols, 100);
+                checkAll(new StaticMatrixRMQ(matrix), matrix);
+            }
+        }
+    }
+    
+    @Test
+    public void randomQueryTest() {
+        Random rand = new Random(107);
+        int[][] matrix = randomMatrix(rand, 200, 150, Integer.MAX_VALUE);
+        StaticMatrixRMQ rmq = new StaticMatrixRMQ(matrix);
+        for (int q = 0; q < 2000; q++) {
+            int r1 = rand.nextInt(200);
+            int r2 = r1 + rand.nextInt(200 - r1);
+            int c1 = rand.nextInt(150);
+            int c2 = c1 + rand.nextInt(150 - c1);
+            if (rmq.query(r1, c1, r2, c2) != bruteMin(matrix, r1, c1, r2, c2)) {
+                fail("Error for " + r1 + ", " + c1 + ", " + r2 + ", " + c2);
+            }
+        }
+    }
+    
+    @Test
+    public void tableLengthTest() {
+        StaticMatrixRMQ rmq = new StaticMatrixRMQ(new int[4][3]);
+        // Row levels have 4 + 3 + 1 rows and column levels 3 + 2 columns.
+        assertEquals("Wrong table length", 8 * 5, rmq.tableLength());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void jaggedTest() {
+        new StaticMatrixRMQ(new int[][] {{1, 2}, {3}});
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        StaticMatrixRMQ rmq = new StaticMatrixRMQ(new int[3][3]);
+        rmq.query(0, 0, 2, 3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyRectangleTest() {
+        StaticMatrixRMQ rmq = new StaticMatrixRMQ(new int[3][3]);
+        rmq.query(2, 0, 1, 2);
+    }
+}
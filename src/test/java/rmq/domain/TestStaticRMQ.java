@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 public class TestStaticRMQ {
@@ -45,6 +46,56 @@ public class TestStaticRMQ {
         }
     }
     
+    @Test
+    public void batchTest() {
+        Random rand = new Random(17);
+        int[] arr = new int[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(10000);
+        }
+        StaticRMQ rmq = new StaticRMQ(arr);
+        int[] l = new int[500];
+        int[] r = new int[l.length];
+        for (int i = 0; i < l.length; i++) {
+            l[i] = rand.nextInt(arr.length);
+            r[i] = l[i] + rand.nextInt(arr.length - l[i]);
+        }
+        int[] out = new int[l.length];
+        rmq.queryAll(l, r, out);
+        for (int i = 0; i < l.length; i++) {
+            assertEquals("Error for " + l[i] + ", " + r[i], rmq.query(l[i], r[i]), out[i]);
+        }
+    }
+    
+    @Test
+    public void parallelBuildTest() {
+        Random rand = new Random(31);
+        int[] arr = new int[50000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(new StaticRMQ(arr).toString(), new StaticRMQ(arr, pool).toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidBatchTest() {
+        int[] arr = {4, 3, 2, 1};
+        StaticRMQ rmq = new StaticRMQ(arr);
+        rmq.queryAll(new int[] {0, 1}, new int[] {3, 4}, new int[2]);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBatchLengthTest() {
+        int[] arr = {4, 3, 2, 1};
+        StaticRMQ rmq = new StaticRMQ(arr);
+        rmq.queryAll(new int[] {0, 1}, new int[] {3, 3}, new int[1]);
+    }
+    
     @Test(expected = IndexOutOfBoundsException.class)
     public void invalidLTest() {
         int[] arr = {4, 3, 2, 1};
@@ -65,4 +116,25 @@ public class TestStaticRMQ {
         StaticRMQ rmq = new StaticRMQ(arr);
         rmq.query(2, 1);
     }
+    
+    @Test
+    public void queryIndexTest() {
+        Random rand = new Random(29);
+        for (int n = 1; n < 70; n += 3) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(4);
+            }
+            StaticRMQ rmq = new StaticRMQ(arr);
+            for (int l = 0; l < arr.length; l++) {
+                int best = l;
+                for (int r = l; r < arr.length; r++) {
+                    best = arr[r] < arr[best] ? r : best;
+                    if (best != rmq.queryIndex(l, r)) {
+                        fail("Wrong index for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestStaticRangeAggregate {
+    
+    private int bruteforce(int[] arr, Aggregate agg, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = agg.apply(ret, arr[i]);
+        }
+        return ret;
+    }
+    
+    private void checkAll(int[] arr, Aggregate agg) {
+        StaticRangeAggregate rmq = new StaticRangeAggregate(arr, agg);
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                if (bruteforce(arr, agg, l, r) != rmq.query(l, r)) {
+                    fail("Error for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {12, 18, 8, 7};
+        assertEquals("Wrong minimum", 7, new StaticRangeAggregate(arr, Aggregate.MIN).query(0, 3));
+        assertEquals("Wrong maximum", 18, new StaticRangeAggregate(arr, Aggregate.MAX).query(0, 3));
+        assertEquals("Wrong gcd", 6, new StaticRangeAggregate(arr, Aggregate.GCD).query(0, 1));
+        assertEquals("Wrong gcd", 2, new StaticRangeAggregate(arr, Aggregate.GCD).query(0, 2));
+        assertEquals("Wrong and", 0, new StaticRangeAggregate(arr, Aggregate.AND).query(1, 3));
+        assertEquals("Wrong or", 31, new StaticRangeAggregate(arr, Aggregate.OR).query(1, 3));
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(43);
+        Aggregate custom = Aggregate.of((a, b) -> a > b ? b : a, Integer.MAX_VALUE, true);
+        for (Aggregate agg : Arrays.asList(Aggregate.MIN, Aggregate.MAX, Aggregate.AND,
+                Aggregate.OR, Aggregate.GCD, custom)) {
+            for (int n = 1; n < 70; n += 3) {
+                int[] arr = new int[n];
+                for (int i = 0; i < arr.length; i++) {
+                    arr[i] = rand.nextInt(1000) * 6;
+                }
+                checkAll(arr, agg);
+            }
+        }
+    }
+    
+    @Test
+    public void matchesFlatStaticTest() {
+        Random rand = new Random(47);
+        int[] arr = new int[500];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        FlatStaticRMQ rmq = new FlatStaticRMQ(arr);
+        StaticRangeAggregate agg = new StaticRangeAggregate(arr, Aggregate.MIN);
+        for (int i = 0; i < 1000; i++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r, rmq.query(l, r), agg.query(l, r));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void notIdempotentTest() {
+        new StaticRangeAggregate(new int[] {1, 2}, Aggregate.SUM);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        new StaticRangeAggregate(new int[] {1, 2}, Aggregate.MAX).query(0, 2);
+    }
+    
+    @Test
+    public void buildTest() {
+        assertTrue("Idempotent operator should use sparse table",
+                Aggregate.GCD.build(new int[] {4, 6}) instanceof StaticRangeAggregate);
+        assertTrue("Other operators should use segment tree",
+                Aggregate.SUM.build(new int[] {4, 6}) instanceof DynamicRangeAggregate);
+        assertEquals("Wrong sum", 10, Aggregate.SUM.build(new int[] {4, 6}).query(0, 1));
+    }
+}
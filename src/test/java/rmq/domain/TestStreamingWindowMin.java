@@ -0,0 +1,81 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.nio.IntBuffer;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestStreamingWindowMin {
+    
+    @Test
+    public void tinyTest() {
+        StreamingWindowMin min = new StreamingWindowMin(2);
+        min.push(3);
+        assertEquals("Wrong minimum for first value", 3, min.min());
+        min.push(1);
+        min.push(2);
+        assertEquals("Wrong minimum for window", 1, min.min());
+        min.push(4);
+        assertEquals("Wrong minimum after window moved", 2, min.min());
+        assertEquals("Wrong count", 4, min.pushed());
+    }
+    
+    @Test
+    public void randomTest() {
+        Random rand = new Random(59);
+        int[] arr = new int[3000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(100);
+        }
+        StaticRMQ rmq = new StaticRMQ(arr);
+        for (int w : new int[] {1, 2, 3, 7, 64, 1000, 5000}) {
+            StreamingWindowMin min = new StreamingWindowMin(w);
+            for (int t = 0; t < arr.length; t++) {
+                min.push(arr[t]);
+                assertEquals("Error for window " + w + " at " + t, 
+                        rmq.query(Math.max(0, t - w + 1), t), min.min());
+            }
+        }
+    }
+    
+    @Test
+    public void increasingTest() {
+        StreamingWindowMin min = new StreamingWindowMin(4);
+        for (int t = 0; t < 100; t++) {
+            min.push(t);
+            assertEquals("Error at " + t, Math.max(0, t - 3), min.min());
+        }
+    }
+    
+    @Test
+    public void batchTest() {
+        Random rand = new Random(61);
+        int[] arr = new int[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        StreamingWindowMin single = new StreamingWindowMin(50);
+        StreamingWindowMin batch = new StreamingWindowMin(50);
+        StreamingWindowMin buffer = new StreamingWindowMin(50);
+        int[] out = new int[arr.length];
+        batch.pushAll(arr, out);
+        buffer.pushAll(IntBuffer.wrap(arr));
+        for (int i = 0; i < arr.length; i++) {
+            single.push(arr[i]);
+            assertEquals("Error at " + i, single.min(), out[i]);
+        }
+        assertEquals(single.min(), buffer.min());
+    }
+    
+    @Test(expected = NoSuchElementException.class)
+    public void emptyTest() {
+        new StreamingWindowMin(3).min();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidWindowTest() {
+        new StreamingWindowMin(0);
+    }
+}
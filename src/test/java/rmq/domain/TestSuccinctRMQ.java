@@ -0,0 +1,144 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestSuccinctRMQ {
+    
+    /**
+     * Leftmost index of the minimum in arr[l..r] by brute force.
+     */
+    private int bruteIndex(int[] arr, int l, int r) {
+        int ret = l;
+        for (int i = l + 1; i <= r; i++) {
+            if (arr[i] < arr[ret]) {
+                ret = i;
+            }
+        }
+        return ret;
+    }
+    
+    private void checkAll(int[] arr) {
+        SuccinctRMQ rmq = new SuccinctRMQ(arr);
+        for (int l = 0; l < arr.length; l++) {
+            int idx = l;
+            for (int r = l; r < arr.length; r++) {
+                if (arr[r] < arr[idx]) {
+                    idx = r;
+                }
+                if (rmq.queryIndex(l, r) != idx) {
+                    fail("Error for " + l + ", " + r);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1, 2};
+        SuccinctRMQ rmq = new SuccinctRMQ(arr, i -> arr[i]);
+        assertEquals("Wrong index for whole array", 3, rmq.queryIndex(0, 4));
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 4));
+        assertEquals("Wrong index for first element", 0, rmq.queryIndex(0, 0));
+        assertEquals("Wrong index for first two", 1, rmq.queryIndex(0, 1));
+    }
+    
+    @Test
+    public void allRangesTest() {
+        Random rand = new Random(163);
+        for (int n = 1; n < 300; n += 37) {
+            int[] arr = new int[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = rand.nextInt(1000);
+            }
+            checkAll(arr);
+        }
+    }
+    
+    @Test
+    public void duplicatesTest() {
+        Random rand = new Random(167);
+        int[] arr = new int[600];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(3);
+        }
+        checkAll(arr);
+    }
+    
+    @Test
+    public void monotoneTest() {
+        int[] increasing = new int[700];
+        int[] decreasing = new int[700];
+        for (int i = 0; i < increasing.length; i++) {
+            increasing[i] = i;
+            decreasing[i] = -i;
+        }
+        checkAll(increasing);
+        checkAll(decreasing);
+        checkAll(new int[700]);
+    }
+    
+    @Test
+    public void largeRandomTest() {
+        Random rand = new Random(173);
+        for (int bound : new int[] {2, 100, Integer.MAX_VALUE}) {
+            int[] arr = new int[300000];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(bound);
+            }
+            SuccinctRMQ rmq = new SuccinctRMQ(arr);
+            FlatStaticRMQ flat = new FlatStaticRMQ(arr);
+            for (int q = 0; q < 20000; q++) {
+                int l = rand.nextInt(arr.length);
+                int len = q % 2 == 0 ? arr.length - l : Math.min(600, arr.length - l);
+                int r = l + rand.nextInt(len);
+                if (rmq.queryIndex(l, r) != flat.queryIndex(l, r)) {
+                    fail("Error for " + l + ", " + r);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void largeMonotoneTest() {
+        int[] arr = new int[100000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = arr.length - i;
+        }
+        SuccinctRMQ rmq = new SuccinctRMQ(arr);
+        Random rand = new Random(179);
+        for (int q = 0; q < 10000; q++) {
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r, bruteIndex(arr, l, r),
+                    rmq.queryIndex(l, r));
+        }
+    }
+    
+    @Test
+    public void sizeTest() {
+        SuccinctRMQ rmq = new SuccinctRMQ(new int[1000000]);
+        double bitsPerElement = rmq.sizeInBits() / 1000000.0;
+        assertTrue("Too large: " + bitsPerElement + " bits per element", bitsPerElement < 2.5);
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void noValuesTest() {
+        SuccinctRMQ rmq = new SuccinctRMQ(new int[] {1, 2, 3});
+        rmq.query(0, 2);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        SuccinctRMQ rmq = new SuccinctRMQ(new int[] {1, 2, 3});
+        rmq.queryIndex(0, 3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyRangeTest() {
+        SuccinctRMQ rmq = new SuccinctRMQ(new int[] {1, 2, 3});
+        rmq.queryIndex(2, 1);
+    }
+}
@@ -0,0 +1,102 @@
+package rmq.domain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestWideDynamicRMQ {
+    
+    /**
+     * Trivial brute force implementation of rmq.
+     * Used here to check proper working of the more advanced structures
+     */
+    private int bruteforce(int[] arr, int l, int r) {
+        int ret = arr[l];
+        for (int i = l + 1; i < r + 1; i++) {
+            ret = ret < arr[i] ? ret : arr[i];
+        }
+        return ret;
+    }
+    
+    private void checkAll(int[] arr, WideDynamicRMQ rmq) {
+        for (int l = 0; l < arr.length; l++) {
+            for (int r = l; r < arr.length; r++) {
+                if (bruteforce(arr, l, r) != rmq.query(l, r)) {
+                    fail("Error for " + l + ", " + r + "\n" + Arrays.toString(arr));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void tinyTest() {
+        int[] arr = {4, 3, 2, 1};
+        WideDynamicRMQ rmq = new WideDynamicRMQ(arr);
+        assertEquals("Wrong minimum for whole array", 1, rmq.query(0, 3));
+        assertEquals("Wrong minimum for first element", 4, rmq.query(0, 0));
+        rmq.update(3, 5);
+        assertEquals("Wrong minimum after update", 2, rmq.query(0, 3));
+    }
+    
+    @Test
+    public void sizesTest() {
+        Random rand = new Random(61);
+        for (int n : new int[] {1, 2, 15, 16, 17, 31, 255, 256, 257, 300}) {
+            int[] arr = new int[n];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(1000) - 500;
+            }
+            checkAll(arr, new WideDynamicRMQ(arr));
+        }
+    }
+    
+    @Test
+    public void randomUpdateTest() {
+        Random rand = new Random(67);
+        int[] arr = new int[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(100);
+        }
+        WideDynamicRMQ rmq = new WideDynamicRMQ(arr);
+        DynamicRMQ expected = new DynamicRMQ(arr);
+        for (int t = 0; t < 3000; t++) {
+            int idx = rand.nextInt(arr.length);
+            int value = rand.nextInt(100);
+            rmq.update(idx, value);
+            expected.update(idx, value);
+            int l = rand.nextInt(arr.length);
+            int r = l + rand.nextInt(arr.length - l);
+            assertEquals("Error for " + l + ", " + r + " after " + t + " updates",
+                    expected.query(l, r), rmq.query(l, r));
+        }
+    }
+    
+    @Test
+    public void updateAllTest() {
+        Random rand = new Random(71);
+        int[] arr = new int[300];
+        WideDynamicRMQ rmq = new WideDynamicRMQ(arr);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt(1000);
+            rmq.update(i, arr[i]);
+        }
+        checkAll(arr, rmq);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateOutOfBoundsTest() {
+        new WideDynamicRMQ(new int[] {1, 2, 3}).update(3, 0);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void queryOutOfBoundsTest() {
+        new WideDynamicRMQ(new int[] {1, 2, 3}).query(0, 3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        new WideDynamicRMQ(new int[] {1, 2, 3}).query(2, 1);
+    }
+}
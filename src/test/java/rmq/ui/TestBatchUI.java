@@ -0,0 +1,173 @@
+package rmq.ui;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rmq.domain.FlatStaticRMQ;
+
+public class TestBatchUI {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream reportContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private BatchUI ui;
+    
+    @Before
+    public void setUp() {
+        System.setOut(new PrintStream(outContent));
+        ui = new BatchUI(new PrintStream(reportContent));
+    }
+    
+    @After
+    public void restoreStreams() {
+        System.setOut(originalOut);
+    }
+    
+    private File writeBinary(String name, int[] values) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(4 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asIntBuffer().put(values);
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), buf.array());
+        return file;
+    }
+    
+    private File writeText(String name, String text) throws IOException {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+    
+    private int[] readBinary(File file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int[] values = new int[buf.remaining() / 4];
+        buf.asIntBuffer().get(values);
+        return values;
+    }
+    
+    @Test
+    public void binaryTest() throws IOException {
+        Random rand = new Random(181);
+        int[] arr = new int[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = rand.nextInt();
+        }
+        int[] queries = new int[2 * 3000];
+        for (int i = 0; i < queries.length; i += 2) {
+            queries[i] = rand.nextInt(arr.length);
+            queries[i + 1] = queries[i] + rand.nextInt(arr.length - queries[i]);
+        }
+        File arrFile = writeBinary("arr.bin", arr);
+        File queryFile = writeBinary("queries.bin", queries);
+        FlatStaticRMQ rmq = new FlatStaticRMQ(arr);
+        String[] engines = {"auto", "static", "flat-static", "linear", "dynamic", "wide-dynamic",
+            "block-scan", "succinct"};
+        for (String engine : engines) {
+            File out = new File(folder.getRoot(), engine + ".bin");
+            int status = ui.run(new String[] {"--array", arrFile.getPath(), "--queries",
+                queryFile.getPath(), "--engine", engine, "--output", out.getPath(),
+                "--batch", "1000"});
+            assertEquals("Wrong status for " + engine, 0, status);
+            int[] results = readBinary(out);
+            assertEquals("Wrong number of results for " + engine, 3000, results.length);
+            for (int i = 0; i < results.length; i++) {
+                assertEquals("Wrong result " + i + " for " + engine,
+                        rmq.query(queries[2 * i], queries[2 * i + 1]), results[i]);
+            }
+        }
+        String report = reportContent.toString();
+        assertTrue("Missing throughput", report.contains("M queries/s"));
+        assertTrue("Missing total time", report.contains("Total time"));
+    }
+    
+    @Test
+    public void textToStandardOutputTest() throws IOException {
+        File arrFile = writeText("arr.txt", "5 -3 8\n2,-2147483648\r\n7");
+        File queryFile = writeText("queries.txt", "0 0\n0 2\n2 3\n3 5\n5 5\n");
+        int status = ui.run(new String[] {"--format", "text", "--array", arrFile.getPath(),
+            "--queries", queryFile.getPath(), "--batch", "2"});
+        assertEquals("Wrong status", 0, status);
+        assertEquals("Wrong results", "5\n-3\n2\n-2147483648\n7\n", outContent.toString());
+        assertTrue("Missing report", reportContent.toString().contains("Read 6 values and 5 "
+                + "queries"));
+    }
+    
+    @Test
+    public void autoEngineTest() throws IOException {
+        File arrFile = writeText("arr.txt", "3 1 2");
+        File queryFile = writeText("queries.txt", "0 2");
+        assertEquals("Wrong status", 0, ui.run(new String[] {"--format", "text", "--array",
+            arrFile.getPath(), "--queries", queryFile.getPath()}));
+        assertTrue("Missing engine", reportContent.toString().contains(BatchUI.autoEngine(3)));
+        for (int size : new int[] {0, 100_000_000, Integer.MAX_VALUE}) {
+            String engine = BatchUI.autoEngine(size);
+            assertTrue(engine, engine.startsWith("Engine for " + size + " values: "));
+            assertFalse("Flat static table does not fit in an array: " + engine,
+                    size >= 100_000_000 && engine.contains("FLAT_STATIC"));
+        }
+    }
+    
+    @Test
+    public void missingOptionTest() {
+        assertEquals("Wrong status", 2, ui.run(new String[] {"--array", "arr.bin"}));
+        assertTrue("Missing usage", reportContent.toString().contains(BatchUI.USAGE));
+    }
+    
+    @Test
+    public void unknownOptionTest() {
+        assertEquals("Wrong status", 2, ui.run(new String[] {"--arr", "arr.bin"}));
+    }
+    
+    @Test
+    public void unknownEngineTest() {
+        String[] args = {"--array", "a", "--queries", "q", "--engine", "fast"};
+        assertEquals("Wrong status", 2, ui.run(args));
+        assertTrue("Missing engines", reportContent.toString().contains("succinct"));
+    }
+    
+    @Test
+    public void invalidBatchTest() {
+        String[] args = {"--array", "a", "--queries", "q", "--batch", "0"};
+        assertEquals("Wrong status", 2, ui.run(args));
+    }
+    
+    @Test
+    public void missingFileTest() {
+        File missing = new File(folder.getRoot(), "missing.bin");
+        String[] args = {"--array", missing.getPath(), "--queries", missing.getPath()};
+        assertEquals("Wrong status", 1, ui.run(args));
+    }
+    
+    @Test
+    public void invalidQueryTest() throws IOException {
+        File arrFile = writeBinary("arr.bin", new int[] {1, 2, 3});
+        File queryFile = writeBinary("queries.bin", new int[] {0, 2, 1, 3});
+        String[] args = {"--array", arrFile.getPath(), "--queries", queryFile.getPath()};
+        assertEquals("Wrong status", 1, ui.run(args));
+        assertTrue("Missing error", reportContent.toString().contains("invalid query"));
+    }
+    
+    @Test
+    public void oddQueryFileTest() throws IOException {
+        File arrFile = writeBinary("arr.bin", new int[] {1, 2, 3});
+        File queryFile = writeBinary("queries.bin", new int[] {0, 2, 1});
+        String[] args = {"--array", arrFile.getPath(), "--queries", queryFile.getPath()};
+        assertEquals("Wrong status", 1, ui.run(args));
+    }
+}
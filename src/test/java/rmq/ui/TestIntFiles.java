@@ -0,0 +1,70 @@
+package rmq.ui;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestIntFiles {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private Path write(String text) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+    
+    @Test
+    public void textTest() throws IOException {
+        int[] values = IntFiles.readText(write(" 1\t-2,,3\r\n2147483647 -2147483648\n"));
+        assertArrayEquals("Wrong values", new int[] {1, -2, 3, Integer.MAX_VALUE,
+            Integer.MIN_VALUE}, values);
+    }
+    
+    @Test
+    public void emptyTextTest() throws IOException {
+        assertEquals("Wrong number of values", 0, IntFiles.readText(write("")).length);
+        assertEquals("Wrong number of values", 0, IntFiles.readText(write("\n \n")).length);
+    }
+    
+    @Test
+    public void largeTextTest() throws IOException {
+        Random rand = new Random(191);
+        int[] expected = new int[200000];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = rand.nextInt();
+            sb.append(expected[i]);
+            sb.append('\n');
+        }
+        assertArrayEquals("Wrong values", expected, IntFiles.readText(write(sb.toString())));
+    }
+    
+    @Test(expected = IOException.class)
+    public void overflowTest() throws IOException {
+        IntFiles.readText(write("2147483648"));
+    }
+    
+    @Test(expected = IOException.class)
+    public void invalidCharacterTest() throws IOException {
+        IntFiles.readText(write("12a"));
+    }
+    
+    @Test(expected = IOException.class)
+    public void loneMinusTest() throws IOException {
+        IntFiles.readText(write("1 - 2"));
+    }
+    
+    @Test(expected = IOException.class)
+    public void binaryLengthTest() throws IOException {
+        IntFiles.readBinary(write("12345"));
+    }
+}
@@ -0,0 +1,35 @@
+package rmq.domain;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Block scans with the incubating Vector API
+ * <p>
+ * Compares as many ints at once as the widest vector the hardware supports,
+ * and finishes the run with scalar comparisons. Only compiled when the build
+ * is run with -Pvector, and loaded reflectively by {@link BlockScanRMQ}.
+ * </p>
+ */
+final class VectorBlockScanner implements BlockScanner {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int min(int[] arr, int from, int to) {
+        int i = from;
+        int res = Integer.MAX_VALUE;
+        int bound = from + SPECIES.loopBound(to - from);
+        if (i < bound) {
+            IntVector acc = IntVector.fromArray(SPECIES, arr, i);
+            for (i += SPECIES.length(); i < bound; i += SPECIES.length()) {
+                acc = acc.min(IntVector.fromArray(SPECIES, arr, i));
+            }
+            res = acc.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < to; i++) {
+            res = arr[i] < res ? arr[i] : res;
+        }
+        return res;
+    }
+}